@@ -1,3 +1,5 @@
+import walk.Process;
+
 public class RecursiveWalk {
     public static void main(String[] args) {
         Process.safeStart(args, true);
@@ -1,3 +1,5 @@
+import walk.Process;
+
 public class Walk {
     public static void main(String[] args) {
         Process.safeStart(args, false);
@@ -0,0 +1,8 @@
+package exceptions;
+
+public class WalkCacheException extends WalkException {
+    @Override
+    protected String getFilesFormat() {
+        return "while working with hash cache file(s) \"%s\"";
+    }
+}
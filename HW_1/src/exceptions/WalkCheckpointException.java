@@ -0,0 +1,8 @@
+package exceptions;
+
+public class WalkCheckpointException extends WalkException {
+    @Override
+    protected String getFilesFormat() {
+        return "while working with checkpoint file(s) \"%s\"";
+    }
+}
@@ -1,16 +1,30 @@
 package exceptions;
 
 import java.io.PrintStream;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.util.Arrays;
 import java.util.stream.Collectors;
 
 public class WalkException extends Exception {
+    private static final ClassValue<Constructor<?>> constructors = new ClassValue<>() {
+        @Override
+        protected Constructor<?> computeValue(final Class<?> type) {
+            try {
+                return type.getDeclaredConstructor();
+            } catch (NoSuchMethodException e) {
+                throw new IllegalArgumentException("WalkException should have a default constructor", e);
+            }
+        }
+    };
+
     private String[] files;
     private String name;
     private String message;
 
+    // walk exceptions are reported by message only, so stack trace is not filled in
     protected WalkException() {
+        super(null, null, false, false);
     }
 
     WalkException init(final String name, final String message, final String... files) {
@@ -22,8 +36,8 @@ public class WalkException extends Exception {
 
     public static <T extends WalkException> T create(Class<T> clazz, String name, String message, String... files) {
         try {
-            return (T) clazz.getDeclaredConstructor().newInstance().init(name, message, files);
-        } catch (InstantiationException | IllegalAccessException | InvocationTargetException | NoSuchMethodException e) {
+            return (T) ((WalkException) constructors.get(clazz).newInstance()).init(name, message, files);
+        } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
             e.printStackTrace();
             throw new IllegalArgumentException("Unable to create WalkException", e);
         }
@@ -0,0 +1,8 @@
+package exceptions;
+
+public class WalkSidecarException extends WalkException {
+    @Override
+    protected String getFilesFormat() {
+        return "while working with sidecar file(s) \"%s\"";
+    }
+}
@@ -0,0 +1,31 @@
+package walk;
+
+import java.nio.file.Path;
+
+// Starts hashing of every file without waiting for it, relies on FileHasher.hashAsync to limit work in flight
+public class AsyncEngine implements HashEngine {
+    private final ReorderBuffer<HashResult> results;
+    private final FileHasher hasher;
+
+    public AsyncEngine(final int window, final FileHasher hasher, final Output output) {
+        this.results = new ReorderBuffer<>(window, result -> result.writeTo(output));
+        this.hasher = hasher;
+    }
+
+    @Override
+    public void file(final Path file) {
+        final long sequence = results.reserve();
+        final String name = file.toString();
+        hasher.hashAsync(file, hash -> results.complete(sequence, new HashResult(hash, name)));
+    }
+
+    @Override
+    public void error(final String name) {
+        results.complete(results.reserve(), new HashResult(null, name));
+    }
+
+    @Override
+    public void close() {
+        results.drain();
+    }
+}
@@ -0,0 +1,121 @@
+package walk;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Reads files through AsynchronousFileChannel. Every file in flight holds one buffer from a fixed pool,
+// so the pool size limits the number of outstanding reads. Hashing is done by completion handlers.
+public class AsyncHashReader implements AutoCloseable {
+    private static final Set<OpenOption> readOnly = Set.of(StandardOpenOption.READ);
+
+    private final BufferPool buffers;
+    private final ExecutorService executor;
+
+    public AsyncHashReader(final int inFlight, final int bufferSize, final int threads) {
+        this.buffers = new BufferPool(inFlight, bufferSize);
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            final Thread thread = new Thread(runnable, "walk-async-io");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // returns null if async mode is not requested
+    public static AsyncHashReader of(final Options options) {
+        final int inFlight = options.getInt("in-flight", 64);
+        final long bufferSize = options.getSize("async-buffer", 64 << 10);
+        final int threads = options.getInt("threads", Runtime.getRuntime().availableProcessors());
+        if (!HashEngine.isAsync(options)) {
+            return null;
+        }
+        if (inFlight == 0 || bufferSize == 0 || bufferSize > Integer.MAX_VALUE || threads == 0) {
+            throw new IllegalArgumentException("Async reads in flight, buffer size and threads should be positive");
+        }
+        return new AsyncHashReader(inFlight, (int) bufferSize, threads);
+    }
+
+    // waits for a free buffer, then feeds hasher with the whole file and calls handler from an I/O thread
+    public void read(final Path file, final Hasher hasher, final CompletionHandler<Hasher, Path> handler) {
+        final AsynchronousFileChannel channel;
+        try {
+            channel = AsynchronousFileChannel.open(file, readOnly, executor);
+        } catch (IOException | RuntimeException e) {
+            handler.failed(e, file);
+            return;
+        }
+        new Read(file, channel, buffers.acquire(), hasher, handler).next();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    private class Read implements CompletionHandler<Integer, Void> {
+        private final Path file;
+        private final AsynchronousFileChannel channel;
+        private final ByteBuffer buffer;
+        private final Hasher hasher;
+        private final CompletionHandler<Hasher, Path> handler;
+        private long position;
+
+        private Read(
+                final Path file,
+                final AsynchronousFileChannel channel,
+                final ByteBuffer buffer,
+                final Hasher hasher,
+                final CompletionHandler<Hasher, Path> handler
+        ) {
+            this.file = file;
+            this.channel = channel;
+            this.buffer = buffer;
+            this.hasher = hasher;
+            this.handler = handler;
+        }
+
+        private void next() {
+            buffer.clear();
+            try {
+                channel.read(buffer, position, null, this);
+            } catch (RuntimeException e) {
+                failed(e, null);
+            }
+        }
+
+        @Override
+        public void completed(final Integer read, final Void attachment) {
+            if (read == -1) {
+                release();
+                handler.completed(hasher, file);
+                return;
+            }
+            position += read;
+            buffer.flip();
+            hasher.update(buffer);
+            next();
+        }
+
+        @Override
+        public void failed(final Throwable e, final Void attachment) {
+            release();
+            handler.failed(e, file);
+        }
+
+        private void release() {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // file was only read
+            }
+            buffers.release(buffer);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package walk;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+// Header: magic, version, hash function name and digest length.
+// Record: kind, then for results digest length and raw digest, then length-prefixed UTF-8 name.
+public class BinaryFormat implements OutputFormat {
+    static final int magic = 0x574C4B42; // "WLKB"
+    private static final int version = 1;
+
+    static final byte result = 0;
+    static final byte failed = 1;
+    static final byte separator = 2;
+
+    private final String function;
+    private final int length;
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private ByteBuffer name = ByteBuffer.allocate(1024);
+
+    public BinaryFormat(final String function, final int length) {
+        this.function = function;
+        this.length = length;
+    }
+
+    @Override
+    public void header(final OutputSink sink) throws IOException {
+        final byte[] name = function.getBytes(StandardCharsets.US_ASCII);
+        sink.putInt(magic);
+        sink.put((byte) version);
+        sink.put((byte) name.length);
+        sink.put(name, 0, name.length);
+        sink.put((byte) length);
+    }
+
+    @Override
+    public void write(final OutputSink sink, final byte[] hash, final CharSequence name) throws IOException {
+        writeHash(sink, hash);
+        encode(name);
+        sink.putInt(this.name.remaining());
+        sink.put(this.name.array(), 0, this.name.remaining());
+    }
+
+    @Override
+    public void write(final OutputSink sink, final byte[] hash, final byte[] name, final int nameLength) throws IOException {
+        writeHash(sink, hash);
+        sink.putInt(nameLength);
+        sink.put(name, 0, nameLength);
+    }
+
+    @Override
+    public void separator(final OutputSink sink) throws IOException {
+        sink.put(separator);
+    }
+
+    private static void writeHash(final OutputSink sink, final byte[] hash) throws IOException {
+        if (hash == null) {
+            sink.put(failed);
+        } else {
+            sink.put(result);
+            sink.put((byte) hash.length);
+            sink.put(hash, 0, hash.length);
+        }
+    }
+
+    // names are encoded into a reused buffer, as record needs the length first
+    private void encode(final CharSequence chars) {
+        final CharBuffer input = CharBuffer.wrap(chars);
+        encoder.reset();
+        name.clear();
+        while (encoder.encode(input, name, true).isOverflow()) {
+            grow();
+        }
+        while (encoder.flush(name).isOverflow()) {
+            grow();
+        }
+        name.flip();
+    }
+
+    private void grow() {
+        name.flip();
+        name = ByteBuffer.allocate(2 * name.capacity()).put(name);
+    }
+
+    // Reads records back, reusing the name buffer and one digest array per length
+    public static class Reader {
+        private final DataInputStream in;
+        private final String function;
+        private final int length;
+        private final byte[][] hashes = new byte[256][];
+        private byte[] name = new byte[1024];
+        private byte kind;
+        private byte[] hash;
+        private int nameLength;
+
+        public Reader(final DataInputStream in) throws IOException {
+            this.in = in;
+            if (in.readInt() != magic) {
+                throw new IOException("Not a binary walk output");
+            }
+            final int version = in.readUnsignedByte();
+            if (version != BinaryFormat.version) {
+                throw new IOException(String.format("Unsupported binary output version: %d", version));
+            }
+            this.function = new String(in.readNBytes(in.readUnsignedByte()), StandardCharsets.US_ASCII);
+            this.length = in.readUnsignedByte();
+        }
+
+        public String function() {
+            return function;
+        }
+
+        public int length() {
+            return length;
+        }
+
+        // false at the end of input
+        public boolean next() throws IOException {
+            final int read = in.read();
+            if (read == -1) {
+                return false;
+            }
+            kind = (byte) read;
+            hash = null;
+            nameLength = 0;
+            try {
+                switch (kind) {
+                    case result:
+                        final int hashLength = in.readUnsignedByte();
+                        if (hashes[hashLength] == null) {
+                            hashes[hashLength] = new byte[hashLength];
+                        }
+                        hash = hashes[hashLength];
+                        in.readFully(hash);
+                        readName();
+                        break;
+                    case failed:
+                        readName();
+                        break;
+                    case separator:
+                        break;
+                    default:
+                        throw new IOException(String.format("Unknown record kind: %d", kind));
+                }
+            } catch (EOFException e) {
+                throw new IOException("Truncated binary walk output", e);
+            }
+            return true;
+        }
+
+        private void readName() throws IOException {
+            nameLength = in.readInt();
+            if (nameLength < 0) {
+                throw new IOException(String.format("Invalid name length: %d", nameLength));
+            }
+            if (name.length < nameLength) {
+                name = new byte[Math.max(nameLength, 2 * name.length)];
+            }
+            in.readFully(name, 0, nameLength);
+        }
+
+        public boolean isSeparator() {
+            return kind == separator;
+        }
+
+        // null for failed files, valid until the next record
+        public byte[] hash() {
+            return hash;
+        }
+
+        // UTF-8 bytes of the name, valid until the next record
+        public byte[] name() {
+            return name;
+        }
+
+        public int nameLength() {
+            return nameLength;
+        }
+    }
+}
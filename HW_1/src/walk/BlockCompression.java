@@ -0,0 +1,154 @@
+package walk;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+// Every buffer drained by the sink becomes an independent deflate block prefixed by
+// raw and compressed lengths, so blocks can be skipped or decoded in parallel.
+public class BlockCompression implements Compression {
+    static final int magic = 0x574C4B5A; // "WLKZ"
+
+    private static final byte[] empty = new byte[0];
+
+    private final Deflater deflater;
+    private final ByteBuffer lengths = ByteBuffer.allocate(2 * Integer.BYTES);
+    private ByteBuffer out = ByteBuffer.allocate(1 << 16);
+
+    public BlockCompression(final int level) {
+        this.deflater = new Deflater(level, true);
+    }
+
+    @Override
+    public void start(final WritableByteChannel channel) throws IOException {
+        Compression.writeFully(ByteBuffer.allocate(Integer.BYTES).putInt(magic).flip(), channel);
+    }
+
+    @Override
+    public void write(final ByteBuffer data, final WritableByteChannel channel) throws IOException {
+        final int raw = data.remaining();
+        if (raw == 0) {
+            return;
+        }
+        deflater.reset();
+        deflater.setInput(data);
+        deflater.finish();
+        out.clear();
+        while (!deflater.finished()) {
+            if (!out.hasRemaining()) {
+                out.flip();
+                out = ByteBuffer.allocate(2 * out.capacity()).put(out);
+            }
+            deflater.deflate(out);
+        }
+        out.flip();
+        deflater.setInput(empty);
+        lengths.clear();
+        lengths.putInt(raw).putInt(out.remaining()).flip();
+        Compression.writeFully(lengths, channel);
+        Compression.writeFully(out, channel);
+    }
+
+    // blocks are complete as soon as they are written
+    @Override
+    public void flush(final WritableByteChannel channel) {
+    }
+
+    @Override
+    public void checkpoint(final WritableByteChannel channel) {
+    }
+
+    @Override
+    public void finish(final WritableByteChannel channel) {
+        deflater.end();
+    }
+
+    public static class Input extends InputStream {
+        private final DataInputStream in;
+        private final Inflater inflater = new Inflater(true);
+        private byte[] compressed = new byte[0];
+        private byte[] block = new byte[0];
+        private int position;
+        private int limit;
+
+        public Input(final InputStream in) throws IOException {
+            this.in = new DataInputStream(in);
+            if (this.in.readInt() != magic) {
+                throw new IOException("Not a block compressed walk output");
+            }
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (position == limit && !nextBlock()) {
+                return -1;
+            }
+            return block[position++] & 0xFF;
+        }
+
+        @Override
+        public int read(final byte[] bytes, final int offset, final int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            if (position == limit && !nextBlock()) {
+                return -1;
+            }
+            final int read = Math.min(length, limit - position);
+            System.arraycopy(block, position, bytes, offset, read);
+            position += read;
+            return read;
+        }
+
+        private boolean nextBlock() throws IOException {
+            final int raw;
+            try {
+                raw = in.readInt();
+            } catch (EOFException e) {
+                return false;
+            }
+            final int size = in.readInt();
+            if (raw <= 0 || size < 0) {
+                throw new IOException(String.format("Invalid block lengths: %d, %d", raw, size));
+            }
+            if (compressed.length < size) {
+                compressed = new byte[size];
+            }
+            if (block.length < raw) {
+                block = new byte[raw];
+            }
+            in.readFully(compressed, 0, size);
+            inflater.reset();
+            inflater.setInput(compressed, 0, size);
+            try {
+                limit = 0;
+                while (limit < raw && !inflater.finished()) {
+                    final int inflated = inflater.inflate(block, limit, raw - limit);
+                    if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                        break;
+                    }
+                    limit += inflated;
+                }
+            } catch (DataFormatException e) {
+                throw new IOException("Corrupted block", e);
+            }
+            if (limit != raw) {
+                throw new IOException(String.format("Block is %d bytes instead of %d", limit, raw));
+            }
+            position = 0;
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            inflater.end();
+            in.close();
+        }
+    }
+}
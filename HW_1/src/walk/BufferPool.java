@@ -0,0 +1,38 @@
+package walk;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+
+// Direct buffers shared by all reading threads, at most count buffers are allocated and in use at once
+public class BufferPool {
+    private final int bufferSize;
+    private final Semaphore budget;
+    private final Queue<ByteBuffer> free = new ConcurrentLinkedQueue<>();
+
+    public BufferPool(final int count, final int bufferSize) {
+        if (count <= 0 || bufferSize <= 0) {
+            throw new IllegalArgumentException("Buffer pool should have positive number and size of buffers");
+        }
+        this.bufferSize = bufferSize;
+        this.budget = new Semaphore(count);
+    }
+
+    // splits memory budget into buffers of given size
+    public static BufferPool ofBudget(final long budget, final int bufferSize) {
+        return new BufferPool((int) Math.min(Integer.MAX_VALUE, Math.max(1, budget / bufferSize)), bufferSize);
+    }
+
+    // waits while all buffers are in use, returned buffer is cleared
+    public ByteBuffer acquire() {
+        budget.acquireUninterruptibly();
+        final ByteBuffer buffer = free.poll();
+        return buffer != null ? buffer.clear() : ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    public void release(final ByteBuffer buffer) {
+        free.add(buffer);
+        budget.release();
+    }
+}
@@ -0,0 +1,52 @@
+package walk;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Reads files smaller than mmapThreshold through pooled direct buffers, maps bigger ones window by window.
+public class ChannelHashReader implements HashReader {
+    public static final int bufferSize = 256 << 10;
+    private static final long windowSize = 256L << 20;
+
+    private final long mmapThreshold;
+    private final BufferPool buffers;
+
+    public ChannelHashReader(final long mmapThreshold, final BufferPool buffers) {
+        this.mmapThreshold = mmapThreshold;
+        this.buffers = buffers;
+    }
+
+    @Override
+    public void read(final Path file, final Hasher hasher) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (size > 0 && size >= mmapThreshold) {
+                map(channel, size, hasher);
+            } else {
+                read(channel, hasher);
+            }
+        }
+    }
+
+    private void read(final FileChannel channel, final Hasher hasher) throws IOException {
+        final ByteBuffer buffer = buffers.acquire();
+        try {
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                hasher.update(buffer);
+                buffer.clear();
+            }
+        } finally {
+            buffers.release(buffer);
+        }
+    }
+
+    private static void map(final FileChannel channel, final long size, final Hasher hasher) throws IOException {
+        for (long position = 0; position < size; position += windowSize) {
+            hasher.update(channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(windowSize, size - position)));
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package walk;
+
+import exceptions.WalkCheckpointException;
+import exceptions.WalkException;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Periodically forces the output to disk and records how far the input got: output length,
+// number of records, input line and number of records of that line already written.
+// Results are written in submission order, so records are mapped back to lines by their submitted counts.
+// State that a resumed run takes along with the output is saved by dependents at every checkpoint.
+public class Checkpoint implements AutoCloseable {
+    private static final long magic = 0x5741_4C4B_4350_4E54L;
+    private static final int version = 1;
+
+    private final Path file;
+    private final String signature;
+    private final OutputSink sink;
+    private final ErrorChannel errors;
+    private final List<Dependent> dependents;
+    private final ScheduledExecutorService timer;
+    // {line, records submitted up to the end of line} of lines which may not be fully written yet
+    private final Deque<long[]> lines = new ArrayDeque<>();
+    private long base;
+    private long current;
+
+    public Checkpoint(
+            final Path file,
+            final long interval,
+            final String signature,
+            final State resumed,
+            final OutputSink sink,
+            final ErrorChannel errors,
+            final List<Dependent> dependents
+    ) {
+        this.file = file;
+        this.signature = signature;
+        this.sink = sink;
+        this.errors = errors;
+        this.dependents = dependents;
+        this.base = resumed != null ? resumed.records - resumed.offset : 0;
+        this.current = resumed != null ? resumed.line : 1;
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "walk-checkpoint");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.scheduleWithFixedDelay(this::saveByTimer, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    // milliseconds between checkpoints, 0 if checkpoints are off
+    public static long interval(final Options options) {
+        final boolean resume = options.has("resume");
+        return options.getLong("checkpoint", resume ? 10_000 : 0);
+    }
+
+    public static Path file(final Path output) {
+        return output.resolveSibling(output.getFileName() + ".checkpoint");
+    }
+
+    // called by the submitting thread after all results of line are submitted
+    public synchronized void lineDone(final long line, final long submitted) {
+        lines.addLast(new long[]{line, submitted});
+        current = line + 1;
+    }
+
+    private synchronized State position(final OutputSink.Mark mark) {
+        while (!lines.isEmpty() && lines.peekFirst()[1] <= mark.records()) {
+            base = lines.pollFirst()[1];
+        }
+        final long line = lines.isEmpty() ? current : lines.peekFirst()[0];
+        return new State(signature, mark.length(), mark.records(), line, mark.records() - base, mark.last());
+    }
+
+    // dependents are saved after the output is forced and before the position, so they never lag behind it;
+    // if one fails, the previous checkpoint is kept, which the previous state of dependents still covers
+    private void saveByTimer() {
+        try {
+            final State state = position(sink.mark());
+            for (final Dependent dependent : dependents) {
+                dependent.save();
+            }
+            save(state);
+        } catch (IOException | WalkException e) {
+            errors.report(WalkCheckpointException.class, e, file);
+        }
+    }
+
+    private void save(final State state) throws IOException {
+        final Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeLong(magic);
+            out.writeInt(version);
+            out.writeUTF(state.signature);
+            out.writeLong(state.length);
+            out.writeLong(state.records);
+            out.writeLong(state.line);
+            out.writeLong(state.offset);
+            writeString(out, state.last);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // null if there is nothing to resume from
+    public static State load(final Path file, final String signature) throws WalkException {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readLong() != magic || in.readInt() != version) {
+                throw new IOException("not a checkpoint file");
+            }
+            final String saved = in.readUTF();
+            if (!saved.equals(signature)) {
+                throw new IOException(String.format("output was written with other options: %s, now: %s", saved, signature));
+            }
+            return new State(saved, in.readLong(), in.readLong(), in.readLong(), in.readLong(), readString(in));
+        } catch (IOException e) {
+            throw WalkException.create(WalkCheckpointException.class, e, file.toString());
+        }
+    }
+
+    // run is complete, there is nothing to resume
+    public void delete() throws WalkException {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            throw WalkException.create(WalkCheckpointException.class, e, file.toString());
+        }
+    }
+
+    private static void writeString(final DataOutputStream out, final String string) throws IOException {
+        final byte[] bytes = string == null ? null : string.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes == null ? -1 : bytes.length);
+        if (bytes != null) {
+            out.write(bytes);
+        }
+    }
+
+    private static String readString(final DataInputStream in) throws IOException {
+        final int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        final byte[] bytes = in.readNBytes(length);
+        if (bytes.length != length) {
+            throw new EOFException();
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() {
+        timer.shutdownNow();
+        try {
+            timer.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // state that must cover the output up to every checkpoint, saved from the checkpoint thread
+    public interface Dependent {
+        void save() throws WalkException;
+    }
+
+    public static class State {
+        private final String signature;
+        private final long length;
+        private final long records;
+        private final long line;
+        private final long offset;
+        private final String last;
+
+        private State(
+                final String signature,
+                final long length,
+                final long records,
+                final long line,
+                final long offset,
+                final String last
+        ) {
+            this.signature = signature;
+            this.length = length;
+            this.records = records;
+            this.line = line;
+            this.offset = offset;
+            this.last = last;
+        }
+
+        // bytes of output which are known to be on disk
+        public long length() {
+            return length;
+        }
+
+        // records in those bytes
+        public long records() {
+            return records;
+        }
+
+        // first input line which is not fully written
+        public long line() {
+            return line;
+        }
+
+        // records of that line already written
+        public long offset() {
+            return offset;
+        }
+
+        // name of the last written record, null if there is none
+        public String last() {
+            return last;
+        }
+    }
+}
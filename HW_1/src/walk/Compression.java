@@ -0,0 +1,86 @@
+package walk;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+
+// Streaming compression of the sink buffer on its way to the output channel
+public interface Compression {
+    // writes stream header of a new output, not called when output is appended
+    void start(WritableByteChannel channel) throws IOException;
+
+    // consumes all remaining bytes of data
+    void write(ByteBuffer data, WritableByteChannel channel) throws IOException;
+
+    // makes everything written so far decodable
+    void flush(WritableByteChannel channel) throws IOException;
+
+    // makes the output written so far a complete stream, which can be appended after a restart
+    void checkpoint(WritableByteChannel channel) throws IOException;
+
+    // writes stream trailer and releases native resources
+    void finish(WritableByteChannel channel) throws IOException;
+
+    // null if output is not compressed
+    static Compression of(final Options options) {
+        final Factory factory = factory(options);
+        return factory != null ? factory.create() : null;
+    }
+
+    // null if output is not compressed
+    static Factory factory(final Options options) {
+        final String compression = options.get("compress", "none");
+        final int level = options.getInt("compress-level", Deflater.BEST_SPEED);
+        if (level > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException(String.format(
+                    "Compression level should be in range [0, %d]", Deflater.BEST_COMPRESSION
+            ));
+        }
+        switch (compression) {
+            case "none":
+                return null;
+            case "gzip":
+                return () -> new GzipCompression(level);
+            case "block":
+                // only WalkConvert decodes the block container, and it reads binary output only
+                if (!options.get("format", "text").equals("binary")) {
+                    throw new IllegalArgumentException("Block compression is supported for binary output only, use gzip for text");
+                }
+                return () -> new BlockCompression(level);
+            default:
+                throw new IllegalArgumentException(String.format(
+                        "Unknown compression: %s, expected one of: none, gzip, block", compression
+                ));
+        }
+    }
+
+    // detects compression by the first bytes of the stream
+    static InputStream decompress(final InputStream raw) throws IOException {
+        final InputStream in = new BufferedInputStream(raw, 1 << 16);
+        in.mark(4);
+        final byte[] head = in.readNBytes(4);
+        in.reset();
+        if (head.length >= 2 && (head[0] & 0xFF) == 0x1F && (head[1] & 0xFF) == 0x8B) {
+            return new GZIPInputStream(in, 1 << 16);
+        }
+        if (head.length == 4 && ByteBuffer.wrap(head).getInt() == BlockCompression.magic) {
+            return new BlockCompression.Input(in);
+        }
+        return in;
+    }
+
+    // finish releases a compression, so every output needs a new one
+    interface Factory {
+        Compression create();
+    }
+
+    static void writeFully(final ByteBuffer buffer, final WritableByteChannel channel) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package walk;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32C;
+
+public class Crc32cHash implements HashFunction {
+    @Override
+    public String name() {
+        return "crc32c";
+    }
+
+    @Override
+    public int length() {
+        return Integer.BYTES;
+    }
+
+    @Override
+    public Hasher newHasher() {
+        return new Hasher() {
+            private final CRC32C crc = new CRC32C();
+
+            @Override
+            public void update(final ByteBuffer bytes) {
+                crc.update(bytes);
+            }
+
+            @Override
+            public void update(final byte[] bytes, final int offset, final int length) {
+                crc.update(bytes, offset, length);
+            }
+
+            @Override
+            public byte[] digest() {
+                return ByteBuffer.allocate(Integer.BYTES).putInt((int) crc.getValue()).array();
+            }
+        };
+    }
+}
@@ -0,0 +1,42 @@
+package walk;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+public interface DirectoryWalker extends AutoCloseable {
+    // visits all files under dir accepted by the filter, depth-first, every directory before the next sibling entry
+    void walk(Path dir, Visitor visitor);
+
+    // same for dir walked again with the rules of a directory it was found under
+    void walk(Path dir, WalkFilter.Scope scope, Visitor visitor);
+
+    @Override
+    default void close() {
+    }
+
+    static DirectoryWalker of(final Options options, final WalkFilter filter) {
+        final int threads = options.getInt("walk-threads", 1);
+        final int prefetch = options.getInt("walk-prefetch", 256);
+        final boolean sort = options.has("sort");
+        if (threads == 0) {
+            throw new IllegalArgumentException("Number of walk threads should be positive");
+        }
+        return threads == 1 && !sort
+                ? new SequentialWalker(filter)
+                : new ParallelWalker(threads, prefetch, sort, filter);
+    }
+
+    interface Visitor {
+        // called after dir is opened and before its entries are visited
+        default void directory(Path dir) {
+        }
+
+        void file(Path file);
+
+        // file or directory could not be opened
+        void failed(Path file, IOException e);
+
+        // directory was opened but could not be listed to the end
+        void dirFailed(Path dir, IOException e);
+    }
+}
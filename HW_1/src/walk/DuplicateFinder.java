@@ -0,0 +1,182 @@
+package walk;
+
+import exceptions.WalkHashException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+
+// Finds files with equal content, reading as little as possible:
+// files are grouped by size, then by hash of their first and last sample bytes,
+// and only files still colliding after that are hashed in full.
+// Empty files are not reported.
+public class DuplicateFinder {
+    private static final Comparator<List<Candidate>> bySizeDescending = Comparator
+            .comparingLong((List<Candidate> group) -> -group.get(0).size)
+            .thenComparing(group -> group.get(0).file.toString());
+
+    private final HashFunction function;
+    private final HashEngine.Factory engines;
+    private final FileHasher fullHasher;
+    private final ErrorChannel errors;
+    private final int sample;
+    private final Map<Long, List<Candidate>> bySize = new HashMap<>();
+    private long files;
+    private long totalBytes;
+    private final LongAdder sampledBytes = new LongAdder();
+    private long fullBytes;
+
+    public DuplicateFinder(
+            final HashFunction function,
+            final HashEngine.Factory engines,
+            final FileHasher fullHasher,
+            final ErrorChannel errors,
+            final int sample
+    ) {
+        this.function = function;
+        this.engines = engines;
+        this.fullHasher = fullHasher;
+        this.errors = errors;
+        this.sample = sample;
+    }
+
+    public static int sample(final Options options) {
+        final long sample = options.getSize("dedup-sample", 16 << 10);
+        if (sample == 0 || sample > Integer.MAX_VALUE / 2) {
+            throw new IllegalArgumentException("Dedup sample size should be in range [1, 1G]");
+        }
+        return (int) sample;
+    }
+
+    public void add(final Path file) {
+        final long size;
+        try {
+            size = Files.size(file);
+        } catch (IOException e) {
+            errors.report(WalkHashException.class, e, file);
+            return;
+        }
+        files++;
+        totalBytes += size;
+        if (size > 0) {
+            bySize.computeIfAbsent(size, s -> new ArrayList<>()).add(new Candidate(file, size));
+        }
+    }
+
+    // calls output for every file of every duplicate group, groups go from the largest files
+    public void report(final HashEngine.Output output, final Runnable separator) {
+        final List<List<Candidate>> sameSize = new ArrayList<>();
+        for (final List<Candidate> group : bySize.values()) {
+            if (group.size() > 1) {
+                sameSize.add(group);
+            }
+        }
+        bySize.clear();
+        hashAll(sameSize, this::sampleHash);
+
+        final List<List<Candidate>> duplicates = new ArrayList<>();
+        final List<List<Candidate>> sameSample = new ArrayList<>();
+        for (final List<Candidate> group : split(sameSize)) {
+            if (group.get(0).size <= 2L * sample) {
+                duplicates.add(group);
+            } else {
+                sameSample.add(group);
+                fullBytes += group.get(0).size * group.size();
+            }
+        }
+        hashAll(sameSample, fullHasher);
+        duplicates.addAll(split(sameSample));
+
+        duplicates.sort(bySizeDescending);
+        for (final List<Candidate> group : duplicates) {
+            for (final Candidate candidate : group) {
+                output.write(candidate.hash, candidate.file.toString());
+            }
+            separator.run();
+        }
+    }
+
+    public String stats() {
+        return String.format(
+                "Dedup: %d files, %d bytes total, %d bytes sampled, %d bytes hashed in full",
+                files, totalBytes, sampledBytes.sum(), fullBytes
+        );
+    }
+
+    private void hashAll(final List<List<Candidate>> groups, final FileHasher hasher) {
+        final Iterator<Candidate> results = groups.stream().flatMap(List::stream).iterator();
+        try (HashEngine engine = engines.create(hasher, (hash, name) -> results.next().hash = hash)) {
+            for (final List<Candidate> group : groups) {
+                for (final Candidate candidate : group) {
+                    engine.file(candidate.file);
+                }
+            }
+        }
+    }
+
+    // splits every group by hash, dropping failed files and unique ones
+    private static List<List<Candidate>> split(final List<List<Candidate>> groups) {
+        final List<List<Candidate>> result = new ArrayList<>();
+        for (final List<Candidate> group : groups) {
+            final Map<ByteBuffer, List<Candidate>> byHash = new LinkedHashMap<>();
+            for (final Candidate candidate : group) {
+                if (candidate.hash != null) {
+                    byHash.computeIfAbsent(ByteBuffer.wrap(candidate.hash), h -> new ArrayList<>()).add(candidate);
+                }
+            }
+            for (final List<Candidate> candidates : byHash.values()) {
+                if (candidates.size() > 1) {
+                    result.add(candidates);
+                }
+            }
+        }
+        return result;
+    }
+
+    private byte[] sampleHash(final Path file) {
+        final Hasher hasher = function.newHasher();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            final ByteBuffer buffer = ByteBuffer.allocate(sample);
+            if (size <= 2L * sample) {
+                for (long position = 0; position < size; position += sample) {
+                    read(channel, buffer, position, hasher);
+                }
+            } else {
+                read(channel, buffer, 0, hasher);
+                read(channel, buffer, size - sample, hasher);
+            }
+        } catch (IOException e) {
+            errors.report(WalkHashException.class, e, file);
+            return null;
+        }
+        return hasher.digest();
+    }
+
+    private void read(final FileChannel channel, final ByteBuffer buffer, long position, final Hasher hasher) throws IOException {
+        buffer.clear();
+        int read;
+        while (buffer.hasRemaining() && (read = channel.read(buffer, position)) != -1) {
+            position += read;
+        }
+        buffer.flip();
+        sampledBytes.add(buffer.remaining());
+        hasher.update(buffer);
+    }
+
+    private static class Candidate {
+        private final Path file;
+        private final long size;
+        private byte[] hash;
+
+        private Candidate(final Path file, final long size) {
+            this.file = file;
+            this.size = size;
+        }
+    }
+}
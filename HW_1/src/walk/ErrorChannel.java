@@ -0,0 +1,183 @@
+package walk;
+
+import exceptions.WalkException;
+
+import java.io.PrintStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Passes errors from hashing threads to a printer thread through a ring of preallocated records.
+// Reporting does not format anything: messages are built by the printer and only for errors that are printed.
+// At most limit errors of the same kind and cause under the same directory are printed,
+// the rest are counted and summarized on close.
+public class ErrorChannel implements AutoCloseable {
+    private final Record[] ring;
+    private final int limit;
+    private final WalkMetrics metrics;
+    private final PrintStream out;
+    private final Map<String, Aggregate> aggregates = new LinkedHashMap<>();
+    private final Thread printer;
+    private long head;
+    private long tail;
+    private boolean closed;
+
+    public ErrorChannel(final int capacity, final int limit, final WalkMetrics metrics, final PrintStream out) {
+        this.ring = new Record[capacity];
+        for (int i = 0; i < capacity; i++) {
+            ring[i] = new Record();
+        }
+        this.limit = limit;
+        this.metrics = metrics;
+        this.out = out;
+        this.printer = new Thread(this::print, "walk-errors");
+        this.printer.setDaemon(true);
+        this.printer.start();
+    }
+
+    public static int limit(final Options options) {
+        final int limit = options.getInt("error-limit", 0);
+        return limit == 0 ? Integer.MAX_VALUE : limit;
+    }
+
+    public void report(final Class<? extends WalkException> type, final Exception cause) {
+        report(type, cause, null, null);
+    }
+
+    public void report(final Class<? extends WalkException> type, final Exception cause, final Object file) {
+        report(type, cause, file, null);
+    }
+
+    // files are converted to strings only if the error is printed, trailing ones may be null
+    public synchronized void report(
+            final Class<? extends WalkException> type,
+            final Exception cause,
+            final Object first,
+            final Object second
+    ) {
+        if (metrics != null) {
+            metrics.error(type);
+        }
+        boolean interrupted = false;
+        while (tail - head == ring.length && !closed) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (closed) {
+            return;
+        }
+        ring[index(tail++)].set(type, cause, first, second);
+        notifyAll();
+    }
+
+    private void print() {
+        final Record record = new Record();
+        while (true) {
+            synchronized (this) {
+                while (head == tail && !closed) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (head == tail) {
+                    return;
+                }
+                final Record next = ring[index(head++)];
+                record.set(next.type, next.cause, next.first, next.second);
+                next.set(null, null, null, null);
+                notifyAll();
+            }
+            print(record);
+        }
+    }
+
+    private void print(final Record record) {
+        final Object file = record.second != null ? record.second : record.first;
+        final Object parent = file == null ? null : parent(file.toString());
+        final String causeName = record.cause.getClass().getSimpleName();
+        final String key = record.type.getName() + ' ' + causeName + ' ' + parent;
+        final Aggregate aggregate = aggregates.computeIfAbsent(key, k -> new Aggregate(record.type, causeName, parent));
+        if (++aggregate.count <= limit) {
+            final String[] files = record.first == null ? new String[0]
+                    : record.second == null ? new String[]{record.first.toString()}
+                    : new String[]{record.first.toString(), record.second.toString()};
+            WalkException.create(record.type, record.cause, files).print(out);
+        }
+    }
+
+    private static String parent(final String file) {
+        final int separator = Math.max(file.lastIndexOf('/'), file.lastIndexOf('\\'));
+        return separator == -1 ? "." : file.substring(0, separator);
+    }
+
+    private int index(final long sequence) {
+        return (int) (sequence % ring.length);
+    }
+
+    // waits for all reported errors to be handled and prints summaries of throttled ones
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+            notifyAll();
+        }
+        boolean interrupted = false;
+        while (printer.isAlive()) {
+            try {
+                printer.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        for (final Aggregate aggregate : aggregates.values()) {
+            if (aggregate.count > limit) {
+                out.printf(
+                        "%d more %s errors (%s) under %s%n",
+                        aggregate.count - limit, aggregate.cause, aggregate.type.getSimpleName(), aggregate.dir
+                );
+            }
+        }
+    }
+
+    private static class Record {
+        private Class<? extends WalkException> type;
+        private Exception cause;
+        private Object first;
+        private Object second;
+
+        private void set(
+                final Class<? extends WalkException> type,
+                final Exception cause,
+                final Object first,
+                final Object second
+        ) {
+            this.type = type;
+            this.cause = cause;
+            this.first = first;
+            this.second = second;
+        }
+    }
+
+    private static class Aggregate {
+        private final Class<? extends WalkException> type;
+        private final String cause;
+        private final Object dir;
+        private long count;
+
+        private Aggregate(final Class<? extends WalkException> type, final String cause, final Object dir) {
+            this.type = type;
+            this.cause = cause;
+            this.dir = dir;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package walk;
+
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+@FunctionalInterface
+public interface FileHasher {
+    // returns null if file could not be hashed
+    byte[] hash(Path file);
+
+    // passes the hash to callback, possibly later and from another thread
+    default void hashAsync(final Path file, final Consumer<byte[]> callback) {
+        callback.accept(hash(file));
+    }
+}
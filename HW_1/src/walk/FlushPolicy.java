@@ -0,0 +1,44 @@
+package walk;
+
+public class FlushPolicy {
+    private static final int defaultCapacity = 1 << 20;
+    private static final long defaultInterval = 1000;
+
+    private final int capacity;
+    private final int threshold;
+    private final long interval;
+
+    public FlushPolicy(final int capacity, final int threshold, final long interval) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Output buffer size should be positive");
+        }
+        if (threshold <= 0 || threshold > capacity) {
+            throw new IllegalArgumentException(String.format("Flush threshold should be in range [1, %d]", capacity));
+        }
+        this.capacity = capacity;
+        this.threshold = threshold;
+        this.interval = interval;
+    }
+
+    public static FlushPolicy of(final Options options) {
+        final int capacity = options.getInt("output-buffer", defaultCapacity);
+        final int threshold = options.getInt("flush-size", capacity);
+        final long interval = options.getLong("flush-interval", defaultInterval);
+        return new FlushPolicy(capacity, threshold, interval);
+    }
+
+    // size of the direct buffer the sink writes through
+    public int capacity() {
+        return capacity;
+    }
+
+    // buffered bytes after which the sink is flushed
+    public int threshold() {
+        return threshold;
+    }
+
+    // milliseconds between background flushes, 0 flushes only by size and at the end of run
+    public long interval() {
+        return interval;
+    }
+}
@@ -0,0 +1,104 @@
+package walk;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.WritableByteChannel;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+// Gzip members are ended at checkpoints only; flushes are sync flushes,
+// so flushed output can be read while the walk goes on
+public class GzipCompression implements Compression {
+    private static final byte[] header = {0x1F, (byte) 0x8B, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xFF};
+
+    private static final byte[] empty = new byte[0];
+
+    private final Deflater deflater;
+    private final CRC32 crc = new CRC32();
+    private final ByteBuffer out = ByteBuffer.allocateDirect(1 << 16);
+    private boolean started;
+    private long size;
+
+    public GzipCompression(final int level) {
+        this.deflater = new Deflater(level, true);
+    }
+
+    @Override
+    public void start(final WritableByteChannel channel) throws IOException {
+        begin(channel);
+    }
+
+    @Override
+    public void write(final ByteBuffer data, final WritableByteChannel channel) throws IOException {
+        begin(channel);
+        final int position = data.position();
+        size += data.remaining();
+        crc.update(data);
+        data.position(position);
+        deflater.setInput(data);
+        while (!deflater.needsInput()) {
+            deflate(channel, Deflater.NO_FLUSH);
+        }
+        // deflater keeps the buffer, which is cleared and refilled by the sink
+        deflater.setInput(empty);
+    }
+
+    @Override
+    public void flush(final WritableByteChannel channel) throws IOException {
+        if (!started) {
+            return;
+        }
+        while (deflate(channel, Deflater.SYNC_FLUSH) == out.capacity()) {
+            // output buffer was filled, there may be more
+        }
+    }
+
+    // members are concatenated, gzip readers decode them as one stream
+    @Override
+    public void checkpoint(final WritableByteChannel channel) throws IOException {
+        if (started) {
+            end(channel);
+        }
+    }
+
+    @Override
+    public void finish(final WritableByteChannel channel) throws IOException {
+        try {
+            if (started) {
+                end(channel);
+            }
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private void begin(final WritableByteChannel channel) throws IOException {
+        if (!started) {
+            Compression.writeFully(ByteBuffer.wrap(header), channel);
+            started = true;
+        }
+    }
+
+    private void end(final WritableByteChannel channel) throws IOException {
+        deflater.finish();
+        while (!deflater.finished()) {
+            deflate(channel, Deflater.NO_FLUSH);
+        }
+        final ByteBuffer trailer = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+        trailer.putInt((int) crc.getValue()).putInt((int) size).flip();
+        Compression.writeFully(trailer, channel);
+        deflater.reset();
+        crc.reset();
+        size = 0;
+        started = false;
+    }
+
+    private int deflate(final WritableByteChannel channel, final int mode) throws IOException {
+        out.clear();
+        final int written = deflater.deflate(out, mode);
+        out.flip();
+        Compression.writeFully(out, channel);
+        return written;
+    }
+}
@@ -0,0 +1,51 @@
+package walk;
+
+import java.nio.ByteBuffer;
+
+public class Hash {
+    private static final long first8Bits = 0xFF00_0000_0000_0000L;
+    private static final int last8Bits = 0xFF;
+
+    static long pjw(final byte[] bytes, final int size, long hash) {
+        for (int i = 0; i < size; i++) {
+            hash = (hash << 8) + (bytes[i] & last8Bits);
+            final long high = hash & first8Bits;
+            if (high != 0) {
+                hash ^= high >> 48;
+                hash &= ~high;
+            }
+        }
+        return hash;
+    }
+
+    // hashes bytes between position and limit without moving position
+    static long pjw(final ByteBuffer bytes, long hash) {
+        final int limit = bytes.limit();
+        for (int i = bytes.position(); i < limit; i++) {
+            hash = (hash << 8) + (bytes.get(i) & last8Bits);
+            final long high = hash & first8Bits;
+            if (high != 0) {
+                hash ^= high >> 48;
+                hash &= ~high;
+            }
+        }
+        return hash;
+    }
+
+    static byte[] toBytes(final long hash) {
+        final byte[] bytes = new byte[Long.BYTES];
+        for (int i = bytes.length - 1, h = 0; i >= 0; i--, h += 8) {
+            bytes[i] = (byte) (hash >>> h);
+        }
+        return bytes;
+    }
+
+    // big-endian long at offset, inverse of toBytes
+    static long getLong(final byte[] bytes, final int offset) {
+        long value = 0;
+        for (int i = 0; i < Long.BYTES; i++) {
+            value = (value << 8) | (bytes[offset + i] & last8Bits);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,201 @@
+package walk;
+
+import exceptions.WalkCacheException;
+import exceptions.WalkException;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Persistent map from absolute path to the hash computed for given size, modification time and file key.
+// Every run is a new generation, entries not used for ttl generations are dropped on save.
+// Hashes are valid for the hash function and tree parameters they were computed with only.
+public class HashCache {
+    private static final long magic = 0x5741_4C4B_4341_4348L;
+    private static final int version = 3;
+    private static final int bufferSize = 1 << 16;
+
+    private final Path file;
+    // hash function and tree parameters, as in the file header
+    private final String hashing;
+    private final int ttl;
+    private final int generation;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private int loaded;
+
+    private HashCache(final Path file, final String hashing, final int ttl, final int generation) {
+        this.file = file;
+        this.hashing = hashing;
+        this.ttl = ttl;
+        this.generation = generation;
+    }
+
+    // tree is null if files are hashed with function only
+    public static HashCache of(final Options options, final HashFunction function, final TreeHash tree) {
+        final String file = options.get("cache", null);
+        final int ttl = options.getInt("cache-ttl", 8);
+        if (file == null) {
+            return null;
+        }
+        if (ttl == 0) {
+            throw new IllegalArgumentException("Cache ttl should be positive");
+        }
+        try {
+            return load(Path.of(file), function.name() + " " + tree, ttl);
+        } catch (InvalidPathException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+    }
+
+    // starts with an empty cache if file is missing, broken or was built with another hash or tree
+    public static HashCache load(final Path file, final String hashing, final int ttl) {
+        if (!Files.exists(file)) {
+            return new HashCache(file, hashing, ttl, 0);
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), bufferSize))) {
+            if (in.readLong() != magic || in.readInt() != version) {
+                throw new IOException("not a hash cache file");
+            }
+            final String name = readString(in);
+            final int generation = in.readInt();
+            if (!name.equals(hashing)) {
+                return new HashCache(file, hashing, ttl, generation + 1);
+            }
+            final HashCache cache = new HashCache(file, hashing, ttl, generation + 1);
+            for (int count = in.readInt(); count > 0; count--) {
+                final String path = readString(in);
+                final long size = in.readLong();
+                final long modified = in.readLong();
+                final String key = readString(in);
+                final int used = in.readInt();
+                final int length = in.readUnsignedShort();
+                final byte[] hash = in.readNBytes(length);
+                if (hash.length != length) {
+                    throw new EOFException();
+                }
+                cache.entries.put(path, new Entry(size, modified, key, hash, used));
+            }
+            cache.loaded = cache.entries.size();
+            return cache;
+        } catch (IOException e) {
+            WalkException.create(WalkCacheException.class, e, file.toString()).print();
+            return new HashCache(file, hashing, ttl, 0);
+        }
+    }
+
+    public byte[] get(final Path path, final BasicFileAttributes attributes) {
+        final Entry entry = entries.get(key(path));
+        if (entry != null && entry.matches(attributes)) {
+            entry.used = generation;
+            hits.increment();
+            return entry.hash;
+        }
+        misses.increment();
+        return null;
+    }
+
+    public void put(final Path path, final BasicFileAttributes attributes, final byte[] hash) {
+        entries.put(key(path), new Entry(
+                attributes.size(), modified(attributes), fileKey(attributes), hash, generation
+        ));
+    }
+
+    public void save() throws WalkException {
+        final Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            final Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), bufferSize))) {
+                out.writeLong(magic);
+                out.writeInt(version);
+                writeString(out, hashing);
+                out.writeInt(generation);
+                final int oldest = generation - ttl + 1;
+                entries.values().removeIf(entry -> entry.used < oldest);
+                out.writeInt(entries.size());
+                for (final Map.Entry<String, Entry> e : entries.entrySet()) {
+                    final Entry entry = e.getValue();
+                    writeString(out, e.getKey());
+                    out.writeLong(entry.size);
+                    out.writeLong(entry.modified);
+                    writeString(out, entry.key);
+                    out.writeInt(entry.used);
+                    out.writeShort(entry.hash.length);
+                    out.write(entry.hash);
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw WalkException.create(WalkCacheException.class, e, file.toString());
+        }
+    }
+
+    public String stats() {
+        return String.format(
+                "Hash cache: %d hits, %d misses, %d entries loaded, %d saved",
+                hits.sum(), misses.sum(), loaded, entries.size()
+        );
+    }
+
+    private static String key(final Path path) {
+        return path.toAbsolutePath().normalize().toString();
+    }
+
+    private static long modified(final BasicFileAttributes attributes) {
+        return attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS);
+    }
+
+    private static String fileKey(final BasicFileAttributes attributes) {
+        return Objects.toString(attributes.fileKey(), "");
+    }
+
+    private static String readString(final DataInputStream in) throws IOException {
+        final int length = in.readInt();
+        if (length < 0) {
+            throw new IOException("negative string length");
+        }
+        final byte[] bytes = in.readNBytes(length);
+        if (bytes.length != length) {
+            throw new EOFException();
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(final DataOutputStream out, final String string) throws IOException {
+        final byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static class Entry {
+        private final long size;
+        private final long modified;
+        private final String key;
+        private final byte[] hash;
+        private volatile int used;
+
+        private Entry(final long size, final long modified, final String key, final byte[] hash, final int used) {
+            this.size = size;
+            this.modified = modified;
+            this.key = key;
+            this.hash = hash;
+            this.used = used;
+        }
+
+        private boolean matches(final BasicFileAttributes attributes) {
+            return size == attributes.size()
+                    && modified == modified(attributes)
+                    && key.equals(fileKey(attributes));
+        }
+    }
+}
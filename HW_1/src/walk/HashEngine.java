@@ -0,0 +1,61 @@
+package walk;
+
+import java.nio.file.Path;
+
+public interface HashEngine extends AutoCloseable {
+    // hashes file, result is written after all previously submitted ones
+    void file(Path file);
+
+    // writes failed result for name, keeping submission order
+    void error(String name);
+
+    // waits for all submitted files and writes the rest of results
+    @Override
+    void close();
+
+    static Factory factory(final Options options) {
+        final int threads = options.getInt("threads", 1);
+        final int window = options.getInt("window", 1024);
+        final int maxConcurrency = options.getInt("max-concurrency", 1024);
+        final String engine = options.get("engine", threads == 1 ? "sequential" : "parallel");
+        if (threads == 0) {
+            throw new IllegalArgumentException("Number of threads should be positive");
+        }
+        if (window == 0) {
+            throw new IllegalArgumentException("Reorder window should be positive");
+        }
+        if (maxConcurrency == 0) {
+            throw new IllegalArgumentException("Maximum concurrency should be positive");
+        }
+        switch (engine) {
+            case "sequential":
+                return SequentialEngine::new;
+            case "parallel":
+                return (hasher, output) -> new ParallelEngine(threads, window, hasher, output);
+            case "async":
+                return (hasher, output) -> new AsyncEngine(window, hasher, output);
+            case "virtual":
+                VirtualEngine.checkSupported();
+                return (hasher, output) -> new VirtualEngine(maxConcurrency, window, hasher, output);
+            default:
+                throw new IllegalArgumentException(String.format(
+                        "Unknown engine: %s, expected one of: sequential, parallel, async, virtual", engine
+                ));
+        }
+    }
+
+    static boolean isAsync(final Options options) {
+        return "async".equals(options.get("engine", null));
+    }
+
+    @FunctionalInterface
+    interface Output {
+        // hash is null for files that failed
+        void write(byte[] hash, String name);
+    }
+
+    @FunctionalInterface
+    interface Factory {
+        HashEngine create(FileHasher hasher, Output output);
+    }
+}
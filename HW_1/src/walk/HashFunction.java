@@ -0,0 +1,12 @@
+package walk;
+
+// Hash algorithm available through HashFunctions, may be provided as a service
+public interface HashFunction {
+    // name used on the command line
+    String name();
+
+    // digest size in bytes
+    int length();
+
+    Hasher newHasher();
+}
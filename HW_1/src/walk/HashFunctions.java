@@ -0,0 +1,40 @@
+package walk;
+
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.TreeMap;
+
+public class HashFunctions {
+    public static final String defaultName = "pjw";
+
+    private static final Map<String, HashFunction> registry = new TreeMap<>();
+
+    static {
+        register(new PjwHash());
+        register(new XxHash64());
+        register(new Crc32cHash());
+        register(new Sha256Hash());
+        ServiceLoader.load(HashFunction.class).forEach(HashFunctions::register);
+    }
+
+    private HashFunctions() {
+    }
+
+    public static synchronized void register(final HashFunction function) {
+        registry.put(function.name(), function);
+    }
+
+    public static synchronized HashFunction get(final String name) {
+        final HashFunction function = registry.get(name);
+        if (function == null) {
+            throw new IllegalArgumentException(String.format(
+                    "Unknown hash: %s, expected one of: %s", name, String.join(", ", registry.keySet())
+            ));
+        }
+        return function;
+    }
+
+    public static HashFunction of(final Options options) {
+        return get(options.get("hash", defaultName));
+    }
+}
@@ -0,0 +1,29 @@
+package walk;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+public interface HashReader {
+    void read(Path file, Hasher hasher) throws IOException;
+
+    static HashReader of(final Options options) {
+        final long threshold = options.getSize("mmap-threshold", 64L << 20);
+        final String reader = options.get("reader", "auto");
+        final long budget = options.getSize("buffer-budget", 64L << 20);
+        final BufferPool buffers = BufferPool.ofBudget(budget, ChannelHashReader.bufferSize);
+        switch (reader) {
+            case "stream":
+                return new StreamHashReader();
+            case "channel":
+                return new ChannelHashReader(Long.MAX_VALUE, buffers);
+            case "mmap":
+                return new ChannelHashReader(0, buffers);
+            case "auto":
+                return new ChannelHashReader(threshold, buffers);
+            default:
+                throw new IllegalArgumentException(String.format(
+                        "Unknown reader: %s, expected one of: auto, stream, channel, mmap", reader
+                ));
+        }
+    }
+}
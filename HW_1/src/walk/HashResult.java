@@ -0,0 +1,16 @@
+package walk;
+
+// Hash of a named file waiting in a ReorderBuffer, hash is null if file failed
+public class HashResult {
+    private final byte[] hash;
+    private final String name;
+
+    public HashResult(final byte[] hash, final String name) {
+        this.hash = hash;
+        this.name = name;
+    }
+
+    public void writeTo(final HashEngine.Output output) {
+        output.write(hash, name);
+    }
+}
@@ -0,0 +1,14 @@
+package walk;
+
+import java.nio.ByteBuffer;
+
+// Streaming state of one HashFunction over one file
+public interface Hasher {
+    // consumes bytes between position and limit, position is moved to limit
+    void update(ByteBuffer bytes);
+
+    void update(byte[] bytes, int offset, int length);
+
+    // big-endian digest of all consumed bytes
+    byte[] digest();
+}
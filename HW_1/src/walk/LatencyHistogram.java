@@ -0,0 +1,55 @@
+package walk;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// Lock-free histogram of nanosecond latencies with power-of-two buckets
+public class LatencyHistogram {
+    private final LongAdder[] buckets = new LongAdder[Long.SIZE];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public LatencyHistogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(final long nanos) {
+        final long value = Math.max(nanos, 0);
+        buckets[Long.SIZE - 1 - Long.numberOfLeadingZeros(value | 1)].increment();
+        count.increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    // upper bound of the bucket containing given percentile
+    public long percentile(final double percentile) {
+        final long total = count.sum();
+        final long rank = (long) Math.ceil(total * percentile / 100);
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i].sum();
+            if (seen >= rank && seen > 0) {
+                return (2L << i) - 1;
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public String toString() {
+        final long total = count.sum();
+        return String.format(
+                "count=%d mean=%dus p50<=%dus p99<=%dus max=%dus",
+                total, total == 0 ? 0 : sum.sum() / total / 1000,
+                micros(percentile(50)), micros(percentile(99)), max.get() / 1000
+        );
+    }
+
+    // bounds are inclusive, so they are rounded up to stay bounds in microseconds
+    private static long micros(final long nanos) {
+        return (nanos + 999) / 1000;
+    }
+}
@@ -0,0 +1,187 @@
+package walk;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Reads UTF-8 lines of a file of any size through memory-mapped windows, batch by batch.
+// Pipes, FIFOs and devices have no size and can not be mapped, they are read through a buffer instead.
+// Lines are terminated like in BufferedReader: "\n", "\r" or "\r\n".
+// Lines that are not valid UTF-8 are decoded with replacement characters and marked as malformed.
+public class LineReader implements AutoCloseable {
+    private static final long windowSize = 64L << 20;
+    private static final int streamBufferSize = 1 << 16;
+
+    private final ReadableByteChannel channel;
+    // -1 if input is read as a stream
+    private final long size;
+    // null if input is mapped
+    private final ByteBuffer buffer;
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPORT)
+            .onUnmappableCharacter(CodingErrorAction.REPORT);
+    private final CharsetDecoder lossyDecoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private final Batch batch;
+
+    private ByteBuffer window;
+    private long windowStart;
+    private long position;
+    private byte[] carry = new byte[256];
+    private int carryLength;
+    private boolean skipLineFeed;
+    private long lineNumber;
+
+    public LineReader(final Path file, final int batchSize) throws IOException {
+        if (Files.isRegularFile(file)) {
+            final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+            this.channel = channel;
+            this.size = channel.size();
+            this.buffer = null;
+        } else {
+            this.channel = Files.newByteChannel(file, StandardOpenOption.READ);
+            this.size = -1;
+            this.buffer = ByteBuffer.allocate(streamBufferSize);
+        }
+        this.batch = new Batch(batchSize);
+    }
+
+    // returns next batch of lines or null at the end of file, batch is reused by the next call
+    public Batch next() throws IOException {
+        batch.size = 0;
+        batch.firstLine = lineNumber + 1;
+        while (batch.size < batch.lines.length && readLine()) {
+            // line is added to batch
+        }
+        return batch.size == 0 ? null : batch;
+    }
+
+    private boolean readLine() throws IOException {
+        while (true) {
+            if ((window == null || position == windowStart + window.limit()) && !nextWindow()) {
+                if (carryLength == 0) {
+                    return false;
+                }
+                addLine(ByteBuffer.wrap(carry, 0, carryLength));
+                carryLength = 0;
+                return true;
+            }
+            final int start = (int) (position - windowStart);
+            final int limit = window.limit();
+            if (skipLineFeed) {
+                skipLineFeed = false;
+                if (window.get(start) == '\n') {
+                    position++;
+                    continue;
+                }
+            }
+            int end = start;
+            while (end < limit && window.get(end) != '\n' && window.get(end) != '\r') {
+                end++;
+            }
+            if (end == limit) {
+                appendCarry(start, limit);
+                position = windowStart + limit;
+                continue;
+            }
+            if (carryLength == 0) {
+                addLine(window.slice(start, end - start));
+            } else {
+                appendCarry(start, end);
+                addLine(ByteBuffer.wrap(carry, 0, carryLength));
+                carryLength = 0;
+            }
+            skipLineFeed = window.get(end) == '\r';
+            position = windowStart + end + 1;
+            return true;
+        }
+    }
+
+    // false at the end of input
+    private boolean nextWindow() throws IOException {
+        if (buffer == null) {
+            if (position >= size) {
+                return false;
+            }
+            window = ((FileChannel) channel).map(FileChannel.MapMode.READ_ONLY, position, Math.min(windowSize, size - position));
+        } else {
+            buffer.clear();
+            if (channel.read(buffer) == -1) {
+                window = null;
+                return false;
+            }
+            window = buffer.flip();
+        }
+        windowStart = position;
+        return true;
+    }
+
+    private void appendCarry(final int from, final int to) {
+        final int length = to - from;
+        if (carryLength + length > carry.length) {
+            final byte[] grown = new byte[Math.max(2 * carry.length, carryLength + length)];
+            System.arraycopy(carry, 0, grown, 0, carryLength);
+            carry = grown;
+        }
+        window.get(from, carry, carryLength, length);
+        carryLength += length;
+    }
+
+    private void addLine(final ByteBuffer bytes) throws CharacterCodingException {
+        lineNumber++;
+        final int index = batch.size++;
+        try {
+            batch.lines[index] = decoder.decode(bytes.duplicate()).toString();
+            batch.errors[index] = null;
+        } catch (CharacterCodingException e) {
+            final CharBuffer chars = lossyDecoder.decode(bytes);
+            batch.lines[index] = chars.toString();
+            batch.errors[index] = e;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    public static class Batch {
+        private final String[] lines;
+        private final CharacterCodingException[] errors;
+        private long firstLine;
+        private int size;
+
+        private Batch(final int capacity) {
+            this.lines = new String[capacity];
+            this.errors = new CharacterCodingException[capacity];
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public String line(final int index) {
+            return lines[index];
+        }
+
+        // decoding error of a malformed line or null
+        public CharacterCodingException error(final int index) {
+            return errors[index];
+        }
+
+        // 1-based number of line in the file
+        public long lineNumber(final int index) {
+            return firstLine + index;
+        }
+    }
+}
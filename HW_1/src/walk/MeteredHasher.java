@@ -0,0 +1,62 @@
+package walk;
+
+import java.nio.ByteBuffer;
+
+// Measures time and bytes spent in updates of the wrapped hasher, used by one thread for one file
+public class MeteredHasher implements Hasher {
+    private final Hasher hasher;
+    private final long start = System.nanoTime();
+    private long firstUpdate;
+    private long hashTime;
+    private long bytes;
+
+    public MeteredHasher(final Hasher hasher) {
+        this.hasher = hasher;
+    }
+
+    @Override
+    public void update(final ByteBuffer buffer) {
+        final long time = before();
+        bytes += buffer.remaining();
+        hasher.update(buffer);
+        hashTime += System.nanoTime() - time;
+    }
+
+    @Override
+    public void update(final byte[] buffer, final int offset, final int length) {
+        final long time = before();
+        bytes += length;
+        hasher.update(buffer, offset, length);
+        hashTime += System.nanoTime() - time;
+    }
+
+    private long before() {
+        final long time = System.nanoTime();
+        if (firstUpdate == 0) {
+            firstUpdate = time;
+        }
+        return time;
+    }
+
+    @Override
+    public byte[] digest() {
+        return hasher.digest();
+    }
+
+    public long start() {
+        return start;
+    }
+
+    // time from creation to the first update, or to now if there were none
+    public long openTime(final long end) {
+        return (firstUpdate == 0 ? end : firstUpdate) - start;
+    }
+
+    public long hashTime() {
+        return hashTime;
+    }
+
+    public long bytes() {
+        return bytes;
+    }
+}
@@ -0,0 +1,111 @@
+package walk;
+
+import java.util.*;
+
+public class Options {
+    private static final String prefix = "--";
+
+    private final List<String> positional = new ArrayList<>();
+    private final Map<String, List<String>> values = new LinkedHashMap<>();
+    private final Set<String> used = new HashSet<>();
+
+    public Options(final String[] args) {
+        for (final String arg : args) {
+            if (arg == null) {
+                throw new IllegalArgumentException("input and output file cannot be null");
+            }
+            if (arg.startsWith(prefix) && arg.length() > prefix.length()) {
+                final int eq = arg.indexOf('=');
+                final String name = eq == -1 ? arg.substring(prefix.length()) : arg.substring(prefix.length(), eq);
+                final String value = eq == -1 ? null : arg.substring(eq + 1);
+                values.computeIfAbsent(name, k -> new ArrayList<>()).add(value);
+            } else {
+                positional.add(arg);
+            }
+        }
+    }
+
+    public List<String> positional() {
+        return positional;
+    }
+
+    public boolean has(final String name) {
+        used.add(name);
+        return values.containsKey(name);
+    }
+
+    public List<String> getAll(final String name) {
+        used.add(name);
+        final List<String> all = values.getOrDefault(name, List.of());
+        for (final String value : all) {
+            if (value == null) {
+                throw new IllegalArgumentException(String.format("Option --%s requires a value", name));
+            }
+        }
+        return all;
+    }
+
+    public String get(final String name, final String defaultValue) {
+        final List<String> all = getAll(name);
+        return all.isEmpty() ? defaultValue : all.get(all.size() - 1);
+    }
+
+    public int getInt(final String name, final int defaultValue) {
+        final long value = getLong(name, defaultValue);
+        if (value > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(String.format("Option --%s is too big: %d", name, value));
+        }
+        return (int) value;
+    }
+
+    public long getLong(final String name, final long defaultValue) {
+        final String value = get(name, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return check(name, Long.parseLong(value));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(String.format("Option --%s expects a number, found: %s", name, value));
+        }
+    }
+
+    // accepts sizes like 64K, 16M, 2G
+    public long getSize(final String name, final long defaultValue) {
+        final String value = get(name, null);
+        return value == null ? defaultValue : parseSize(name, value);
+    }
+
+    // value of option name in the format of getSize
+    public static long parseSize(final String name, final String value) {
+        final String digits;
+        final long unit;
+        switch (Character.toUpperCase(value.isEmpty() ? ' ' : value.charAt(value.length() - 1))) {
+            case 'K': unit = 1L << 10; break;
+            case 'M': unit = 1L << 20; break;
+            case 'G': unit = 1L << 30; break;
+            default: unit = 1;
+        }
+        digits = unit == 1 ? value : value.substring(0, value.length() - 1);
+        try {
+            return check(name, Math.multiplyExact(Long.parseLong(digits), unit));
+        } catch (NumberFormatException | ArithmeticException e) {
+            throw new IllegalArgumentException(String.format("Option --%s expects a size, found: %s", name, value));
+        }
+    }
+
+    private static long check(final String name, final long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException(String.format("Option --%s can not be negative: %d", name, value));
+        }
+        return value;
+    }
+
+    public void checkUnknown() {
+        final Set<String> unknown = new LinkedHashSet<>(values.keySet());
+        unknown.removeAll(used);
+        if (!unknown.isEmpty()) {
+            throw new IllegalArgumentException(String.format("Unknown option(s): --%s", String.join(", --", unknown)));
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package walk;
+
+import java.io.IOException;
+
+// Layout of results in the output file, records are written straight into the sink buffer
+public interface OutputFormat {
+    // written once at the start of the output
+    void header(OutputSink sink) throws IOException;
+
+    // hash is null for failed files
+    void write(OutputSink sink, byte[] hash, CharSequence name) throws IOException;
+
+    // same as above for name already encoded in UTF-8
+    void write(OutputSink sink, byte[] hash, byte[] name, int nameLength) throws IOException;
+
+    // empty record between groups of duplicates
+    void separator(OutputSink sink) throws IOException;
+
+    static OutputFormat of(final Options options, final HashFunction function) {
+        return of(options, function.name(), function.length());
+    }
+
+    static OutputFormat of(final Options options, final String function, final int length) {
+        final String format = options.get("format", "text");
+        switch (format) {
+            case "text":
+                return new TextFormat(function, length);
+            case "binary":
+                return new BinaryFormat(function, length);
+            default:
+                throw new IllegalArgumentException(String.format(
+                        "Unknown output format: %s, expected one of: text, binary", format
+                ));
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package walk;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class OutputSink implements AutoCloseable {
+    private final Path file;
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private final FlushPolicy policy;
+    private final OutputFormat format;
+    private final Compression compression;
+    private final ScheduledExecutorService timer;
+    private IOException deferred;
+    private long records;
+    private CharSequence last;
+
+    // compression is null for plain output
+    public OutputSink(final Path file, final FlushPolicy policy, final OutputFormat format, final Compression compression) throws IOException {
+        this(file, policy, format, compression, false, 0);
+    }
+
+    // appended output continues the given number of records, so headers are not written again
+    public OutputSink(
+            final Path file,
+            final FlushPolicy policy,
+            final OutputFormat format,
+            final Compression compression,
+            final boolean append,
+            final long records
+    ) throws IOException {
+        this.file = file;
+        this.policy = policy;
+        this.format = format;
+        this.compression = compression;
+        this.records = records;
+        this.channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        this.buffer = ByteBuffer.allocateDirect(policy.capacity());
+        if (!append) {
+            if (compression != null) {
+                compression.start(channel);
+            }
+            format.header(this);
+        }
+        if (policy.interval() > 0) {
+            timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                final Thread thread = new Thread(runnable, "output-sink-flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            timer.scheduleWithFixedDelay(this::flushByTimer, policy.interval(), policy.interval(), TimeUnit.MILLISECONDS);
+        } else {
+            timer = null;
+        }
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    // hash is null for failed files
+    public synchronized void write(final byte[] hash, final CharSequence name) throws IOException {
+        rethrowDeferred();
+        format.write(this, hash, name);
+        records++;
+        last = name;
+        drainByThreshold();
+    }
+
+    // name is already encoded in UTF-8
+    public synchronized void write(final byte[] hash, final byte[] name, final int nameLength) throws IOException {
+        rethrowDeferred();
+        format.write(this, hash, name, nameLength);
+        records++;
+        drainByThreshold();
+    }
+
+    public synchronized void separator() throws IOException {
+        rethrowDeferred();
+        format.separator(this);
+        records++;
+        drainByThreshold();
+    }
+
+    // primitives for formats, called under the sink lock
+
+    void put(final byte b) throws IOException {
+        if (!buffer.hasRemaining()) {
+            drain();
+        }
+        buffer.put(b);
+    }
+
+    void put(final byte[] bytes, int offset, int length) throws IOException {
+        while (length > 0) {
+            if (!buffer.hasRemaining()) {
+                drain();
+            }
+            final int put = Math.min(length, buffer.remaining());
+            buffer.put(bytes, offset, put);
+            offset += put;
+            length -= put;
+        }
+    }
+
+    void putInt(final int value) throws IOException {
+        for (int shift = Integer.SIZE - Byte.SIZE; shift >= 0; shift -= Byte.SIZE) {
+            put((byte) (value >>> shift));
+        }
+    }
+
+    void putChars(final CharSequence chars) throws IOException {
+        final CharBuffer input = CharBuffer.wrap(chars);
+        encoder.reset();
+        CoderResult result;
+        while ((result = encoder.encode(input, buffer, true)).isOverflow()) {
+            drain();
+        }
+        while (encoder.flush(buffer).isOverflow()) {
+            drain();
+        }
+        if (result.isError()) {
+            result.throwException();
+        }
+    }
+
+    private void drainByThreshold() throws IOException {
+        if (buffer.position() >= policy.threshold()) {
+            drain();
+        }
+    }
+
+    public synchronized void flush() throws IOException {
+        rethrowDeferred();
+        drain();
+        if (compression != null) {
+            compression.flush(channel);
+        }
+    }
+
+    // forces everything written so far to disk, output can be cut at the returned length and continued
+    public synchronized Mark mark() throws IOException {
+        rethrowDeferred();
+        drain();
+        if (compression != null) {
+            compression.checkpoint(channel);
+        }
+        channel.force(false);
+        return new Mark(channel.size(), records, last == null ? null : last.toString());
+    }
+
+    private synchronized void flushByTimer() {
+        if (deferred != null || !channel.isOpen()) {
+            return;
+        }
+        try {
+            drain();
+            if (compression != null) {
+                compression.flush(channel);
+            }
+        } catch (IOException e) {
+            deferred = e;
+        }
+    }
+
+    private void rethrowDeferred() throws IOException {
+        if (deferred != null) {
+            final IOException e = deferred;
+            deferred = null;
+            throw e;
+        }
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        try {
+            if (compression != null) {
+                compression.write(buffer, channel);
+            } else {
+                Compression.writeFully(buffer, channel);
+            }
+        } finally {
+            buffer.clear();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (timer != null) {
+            timer.shutdownNow();
+        }
+        synchronized (this) {
+            try {
+                rethrowDeferred();
+                drain();
+                if (compression != null) {
+                    compression.finish(channel);
+                }
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    public static class Mark {
+        private final long length;
+        private final long records;
+        private final String last;
+
+        private Mark(final long length, final long records, final String last) {
+            this.length = length;
+            this.records = records;
+            this.last = last;
+        }
+
+        public long length() {
+            return length;
+        }
+
+        public long records() {
+            return records;
+        }
+
+        // name of the last record written by the text write, null if there is none
+        public String last() {
+            return last;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package walk;
+
+import exceptions.WalkException;
+import exceptions.WalkHashException;
+
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+
+public class ParallelEngine implements HashEngine {
+    private final ForkJoinPool pool;
+    private final ReorderBuffer<HashResult> results;
+    private final FileHasher hasher;
+
+    public ParallelEngine(final int threads, final int window, final FileHasher hasher, final Output output) {
+        this.pool = new ForkJoinPool(threads);
+        this.results = new ReorderBuffer<>(window, result -> result.writeTo(output));
+        this.hasher = hasher;
+    }
+
+    @Override
+    public void file(final Path file) {
+        final long sequence = results.reserve();
+        final String name = file.toString();
+        pool.execute(() -> {
+            byte[] hash = null;
+            try {
+                hash = hasher.hash(file);
+            } catch (RuntimeException e) {
+                WalkException.create(WalkHashException.class, e, name).print();
+            } finally {
+                results.complete(sequence, new HashResult(hash, name));
+            }
+        });
+    }
+
+    @Override
+    public void error(final String name) {
+        results.complete(results.reserve(), new HashResult(null, name));
+    }
+
+    @Override
+    public void close() {
+        try {
+            results.drain();
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
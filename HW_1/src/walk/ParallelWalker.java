@@ -0,0 +1,236 @@
+package walk;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Lists directories ahead of the visitor on a fork/join pool, at most prefetch listings are kept in memory.
+// Visitor is called from the walking thread in the same depth-first order as Files.walkFileTree uses.
+public class ParallelWalker implements DirectoryWalker {
+    private static final Comparator<Entry> byName = Comparator.comparing(entry -> entry.path.getFileName());
+
+    private final ForkJoinPool pool;
+    private final Semaphore prefetch;
+    private final boolean sort;
+    private final WalkFilter filter;
+
+    public ParallelWalker(final int threads, final int prefetch, final boolean sort, final WalkFilter filter) {
+        this.pool = new ForkJoinPool(threads);
+        this.prefetch = new Semaphore(prefetch);
+        this.sort = sort;
+        this.filter = filter;
+    }
+
+    @Override
+    public void walk(final Path dir, final Visitor visitor) {
+        final WalkFilter.Scope scope;
+        try {
+            scope = filter.scope(dir);
+        } catch (IOException e) {
+            visitor.failed(dir, e);
+            return;
+        }
+        walk(dir, scope, visitor);
+    }
+
+    @Override
+    public void walk(final Path dir, final WalkFilter.Scope scope, final Visitor visitor) {
+        final Object key;
+        try {
+            key = filter.followLinks() ? Files.readAttributes(dir, BasicFileAttributes.class).fileKey() : null;
+        } catch (IOException e) {
+            visitor.failed(dir, e);
+            return;
+        }
+        final Deque<Iterator<Entry>> stack = new ArrayDeque<>();
+        enter(new Node(scope, dir, key, 0, null), stack, visitor);
+        while (!stack.isEmpty()) {
+            final Iterator<Entry> entries = stack.peek();
+            if (!entries.hasNext()) {
+                stack.pop();
+                continue;
+            }
+            final Entry entry = entries.next();
+            if (entry.error != null) {
+                visitor.failed(entry.path, entry.error);
+            } else if (entry.node != null) {
+                enter(entry.node, stack, visitor);
+            } else {
+                visitor.file(entry.path);
+            }
+        }
+    }
+
+    private void enter(final Node node, final Deque<Iterator<Entry>> stack, final Visitor visitor) {
+        final Listing listing = node.await();
+        if (listing.openError != null) {
+            visitor.failed(node.dir, listing.openError);
+            return;
+        }
+        visitor.directory(node.dir);
+        stack.push(listing.entries.iterator());
+        if (listing.iterationError != null) {
+            visitor.dirFailed(node.dir, listing.iterationError);
+        }
+    }
+
+    private Listing list(final Node node) {
+        final List<Entry> entries = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(node.dir)) {
+            try {
+                for (final Path path : stream) {
+                    final Entry entry = entry(node, path);
+                    if (entry != null) {
+                        entries.add(entry);
+                    }
+                }
+            } catch (DirectoryIteratorException e) {
+                return new Listing(prepare(entries), null, e.getCause());
+            }
+        } catch (IOException e) {
+            return entries.isEmpty()
+                    ? new Listing(List.of(), e, null)
+                    : new Listing(prepare(entries), null, e);
+        }
+        return new Listing(prepare(entries), null, null);
+    }
+
+    // null if entry is filtered out, subdirectories are filtered before they are listed
+    private Entry entry(final Node parent, final Path path) {
+        try {
+            final BasicFileAttributes attributes = attributes(path);
+            if (!attributes.isDirectory()) {
+                return parent.scope.accept(path, attributes) ? new Entry(path, null, null) : null;
+            }
+            if (!parent.scope.enter(path, parent.depth + 1)) {
+                return null;
+            }
+            if (filter.followLinks() && parent.isAncestor(path, attributes.fileKey())) {
+                throw new FileSystemLoopException(path.toString());
+            }
+            return new Entry(path, new Node(parent.scope, path, attributes.fileKey(), parent.depth + 1, parent), null);
+        } catch (IOException e) {
+            return new Entry(path, null, e);
+        }
+    }
+
+    // attributes of the link itself unless links are followed, broken links are visited as they are
+    private BasicFileAttributes attributes(final Path path) throws IOException {
+        if (filter.followLinks()) {
+            try {
+                return Files.readAttributes(path, BasicFileAttributes.class);
+            } catch (IOException ignored) {
+                // falls back to the link
+            }
+        }
+        return Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+    }
+
+    private List<Entry> prepare(final List<Entry> entries) {
+        if (sort) {
+            entries.sort(byName);
+        }
+        for (final Entry entry : entries) {
+            if (entry.node != null) {
+                prefetch(entry.node);
+            }
+        }
+        return entries;
+    }
+
+    private void prefetch(final Node node) {
+        if (!prefetch.tryAcquire()) {
+            return;
+        }
+        pool.execute(() -> {
+            if (node.claim()) {
+                try {
+                    node.listing.complete(list(node));
+                } catch (RuntimeException e) {
+                    node.listing.completeExceptionally(e);
+                }
+            } else {
+                prefetch.release();
+            }
+        });
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+
+    private class Node {
+        private final WalkFilter.Scope scope;
+        private final Path dir;
+        // file key of the directory, used to find loops when links are followed
+        private final Object key;
+        private final int depth;
+        private final Node parent;
+        private final AtomicBoolean claimed = new AtomicBoolean();
+        private final CompletableFuture<Listing> listing = new CompletableFuture<>();
+
+        private Node(final WalkFilter.Scope scope, final Path dir, final Object key, final int depth, final Node parent) {
+            this.scope = scope;
+            this.dir = dir;
+            this.key = key;
+            this.depth = depth;
+            this.parent = parent;
+        }
+
+        // whether this directory or one above it is the same as dir
+        private boolean isAncestor(final Path dir, final Object key) throws IOException {
+            for (Node node = this; node != null; node = node.parent) {
+                if (key != null && node.key != null ? key.equals(node.key) : Files.isSameFile(dir, node.dir)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+
+        // lists directory in place unless it is already taken by the pool
+        private Listing await() {
+            if (claim()) {
+                return list(this);
+            }
+            try {
+                return listing.join();
+            } finally {
+                prefetch.release();
+            }
+        }
+    }
+
+    private static class Entry {
+        private final Path path;
+        private final Node node;
+        private final IOException error;
+
+        private Entry(final Path path, final Node node, final IOException error) {
+            this.path = path;
+            this.node = node;
+            this.error = error;
+        }
+    }
+
+    private static class Listing {
+        private final List<Entry> entries;
+        private final IOException openError;
+        private final IOException iterationError;
+
+        private Listing(final List<Entry> entries, final IOException openError, final IOException iterationError) {
+            this.entries = entries;
+            this.openError = openError;
+            this.iterationError = iterationError;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package walk;
+
+import java.nio.ByteBuffer;
+
+public class PjwHash implements HashFunction {
+    @Override
+    public String name() {
+        return "pjw";
+    }
+
+    @Override
+    public int length() {
+        return Long.BYTES;
+    }
+
+    @Override
+    public Hasher newHasher() {
+        return new Hasher() {
+            private long hash;
+
+            @Override
+            public void update(final ByteBuffer bytes) {
+                hash = Hash.pjw(bytes, hash);
+                bytes.position(bytes.limit());
+            }
+
+            @Override
+            public void update(final byte[] bytes, final int offset, final int length) {
+                if (offset == 0) {
+                    hash = Hash.pjw(bytes, length, hash);
+                } else {
+                    hash = Hash.pjw(ByteBuffer.wrap(bytes, offset, length), hash);
+                }
+            }
+
+            @Override
+            public byte[] digest() {
+                return Hash.toBytes(hash);
+            }
+        };
+    }
+}
@@ -0,0 +1,498 @@
+package walk;
+
+import exceptions.*;
+
+import java.io.IOException;
+import java.nio.channels.CompletionHandler;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.function.Consumer;
+
+public class Process {
+
+    public static void safeStart(final String[] args, final boolean withDirs) {
+        try {
+            start(args, withDirs);
+        } catch (WalkException e) {
+            e.print();
+        }
+    }
+
+    public static void start(final String[] args, final boolean withDirs) throws WalkException {
+        final Options options;
+        final WalkConfig config;
+        try {
+            if (args == null) {
+                throw new IllegalArgumentException("args can not be null");
+            }
+            options = new Options(args);
+            if (options.positional().size() != 2) {
+                throw new IllegalArgumentException(String.format("Wrong number of arguments: %d, required: 2", options.positional().size()));
+            }
+            config = WalkConfig.of(options);
+        } catch (IllegalArgumentException e) {
+            throw WalkException.create(WalkException.class, e);
+        }
+
+        final Path out, in;
+
+        try {
+            out = Path.of(options.positional().get(1));
+            in = Path.of(options.positional().get(0));
+        } catch (InvalidPathException e) {
+            throw WalkException.create(WalkFormatException.class, e);
+        }
+        checkSameFile(in, out);
+        if (config.watch() && !withDirs) {
+            throw WalkException.create(WalkException.class, new IllegalArgumentException("Watch mode is supported by RecursiveWalk only"));
+        }
+        final WatchService watchService;
+        try {
+            watchService = config.watch() ? out.getFileSystem().newWatchService() : null;
+        } catch (IOException e) {
+            throw WalkException.create(WalkException.class, e, out.toString());
+        }
+        final Path checkpointFile = Checkpoint.file(out);
+        final String signature = config.signature() + " " + in.toAbsolutePath();
+        final Checkpoint.State resumed = config.resume() ? Checkpoint.load(checkpointFile, signature) : null;
+        if (resumed != null) {
+            resumeOutputFile(out, resumed.length());
+        } else {
+            initOutputFile(out);
+        }
+
+        final OutputSink sink;
+        try {
+            sink = resumed != null
+                    ? new OutputSink(out, config.policy(), config.format(), config.compression(), true, resumed.records())
+                    : new OutputSink(out, config.policy(), config.format(), config.compression());
+        } catch (IOException e) {
+            throw WalkException.create(WalkCreateOutputException.class, e, out.toString());
+        }
+        final WalkMetrics metrics = config.metrics();
+        if (metrics != null) {
+            metrics.start();
+        }
+        final Sidecar sidecar = !config.sidecar() ? null
+                : resumed != null ? Sidecar.load(Sidecar.file(out))
+                : Sidecar.empty(Sidecar.file(out));
+        final DirectoryWalker walker = config.walker();
+        final ErrorChannel errors = new ErrorChannel(errorsCapacity, config.errorLimit(), metrics, System.err);
+        final Checkpoint checkpoint = config.checkpointInterval() > 0
+                ? new Checkpoint(
+                        checkpointFile, config.checkpointInterval(), signature, resumed, sink, errors,
+                        sidecar != null ? List.of(sidecar::save) : List.of()
+                )
+                : null;
+        final Watcher watcher = watchService != null ? new Watcher(out, config, watchService, errors) : null;
+        try (walker; errors; watcher) {
+            final Process process = new Process(sink, errors, checkpoint, resumed, sidecar, watcher, config);
+            try (sink; checkpoint) {
+                process.process(in, withDirs);
+            } catch (IOException e) {
+                throw WalkException.create(WalkWriteOutputException.class, e, out.toString());
+            }
+            if (watcher != null) {
+                watcher.run(process::calcFileHash, walker);
+            }
+        } finally {
+            if (config.cache() != null) {
+                saveCache(config.cache());
+            }
+            if (sidecar != null) {
+                saveSidecar(sidecar);
+            }
+            if (config.asyncReader() != null) {
+                config.asyncReader().close();
+            }
+            if (config.tree() != null) {
+                config.tree().close();
+            }
+            if (metrics != null) {
+                metrics.close();
+            }
+        }
+        if (checkpoint != null) {
+            checkpoint.delete();
+        }
+    }
+
+    private static void saveCache(final HashCache cache) {
+        try {
+            cache.save();
+        } catch (WalkException e) {
+            e.print();
+        }
+        System.out.println(cache.stats());
+    }
+
+    private static void saveSidecar(final Sidecar sidecar) {
+        try {
+            sidecar.save();
+        } catch (WalkException e) {
+            e.print();
+        }
+    }
+
+    private static final int inputBatchSize = 1024;
+    private static final int errorsCapacity = 1024;
+
+    private final OutputSink sink;
+    private final ErrorChannel errors;
+    private final HashReader reader;
+    private final AsyncHashReader asyncReader;
+    private final HashFunction function;
+    private final TreeHash tree;
+    private final HashCache cache;
+    private final Sidecar sidecar;
+    private final Watcher watcher;
+    private final DirectoryWalker walker;
+    private final WalkMetrics metrics;
+    private final HashEngine engine;
+    private final DuplicateFinder duplicates;
+    private final Checkpoint checkpoint;
+    private final long resumedLine;
+    private final String resumedLast;
+    // records submitted to the engine or already written before resume
+    private long submitted;
+    // records of the resumed line which are already written
+    private long skip;
+
+    private Process(
+            final OutputSink sink,
+            final ErrorChannel errors,
+            final Checkpoint checkpoint,
+            final Checkpoint.State resumed,
+            final Sidecar sidecar,
+            final Watcher watcher,
+            final WalkConfig config
+    ) {
+        this.sink = sink;
+        this.errors = errors;
+        this.checkpoint = checkpoint;
+        this.resumedLine = resumed != null ? resumed.line() : 0;
+        this.resumedLast = resumed != null ? resumed.last() : null;
+        this.submitted = resumed != null ? resumed.records() - resumed.offset() : 0;
+        this.skip = resumed != null ? resumed.offset() : 0;
+        this.reader = config.reader();
+        this.asyncReader = config.asyncReader();
+        this.function = config.function();
+        this.tree = config.tree();
+        this.cache = config.cache();
+        this.sidecar = sidecar;
+        this.watcher = watcher;
+        this.walker = config.walker();
+        this.metrics = config.metrics();
+        this.engine = config.engines().create(new FileHasher() {
+            @Override
+            public byte[] hash(final Path file) {
+                return calcFileHash(file);
+            }
+
+            @Override
+            public void hashAsync(final Path file, final Consumer<byte[]> callback) {
+                if (asyncReader != null) {
+                    calcFileHashAsync(file, callback);
+                } else {
+                    callback.accept(calcFileHash(file));
+                }
+            }
+        }, this::writeResult);
+        this.duplicates = config.dedupSample() > 0
+                ? new DuplicateFinder(function, config.engines(), this::calcFileHash, errors, config.dedupSample())
+                : null;
+    }
+
+    private void process(final Path in, final boolean withDirs) throws WalkException {
+        try (engine; LineReader lines = new LineReader(in, inputBatchSize)) {
+            LineReader.Batch batch;
+            while ((batch = lines.next()) != null) {
+                for (int i = 0; i < batch.size(); i++) {
+                    if (batch.lineNumber(i) < resumedLine) {
+                        continue;
+                    }
+                    if (watcher != null) {
+                        watcher.line();
+                    }
+                    if (batch.error(i) != null) {
+                        writeError(batch.line(i));
+                        errors.report(
+                                WalkFormatException.class, batch.error(i),
+                                String.format("%s:%d", in, batch.lineNumber(i))
+                        );
+                    } else {
+                        processLine(batch.line(i), withDirs);
+                    }
+                    if (checkpoint != null) {
+                        checkpoint.lineDone(batch.lineNumber(i), submitted);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw WalkException.create(WalkInputException.class, e, in.toString());
+        }
+        if (duplicates != null) {
+            duplicates.report(this::writeResult, this::writeSeparator);
+            System.out.println(duplicates.stats());
+        }
+    }
+
+    private void processLine(final String line, final boolean withDirs) {
+        final Path path;
+        try {
+            path = Path.of(line);
+        } catch (InvalidPathException e) {
+            writeError(line);
+            errors.report(WalkFormatException.class, e);
+            return;
+        }
+        if (Files.isDirectory(path)) {
+            if (withDirs) {
+                processDir(path);
+            } else {
+                writeError(path.toString());
+            }
+        } else {
+            if (watcher != null) {
+                watcher.registerFile(path);
+            }
+            processFile(path);
+        }
+    }
+
+    static void checkSameFile(final Path in, final Path out) throws WalkException {
+        try {
+            if (Files.exists(in) && Files.exists(out) && Files.isSameFile(in, out)) {
+                throw new IOException("input and output files can not be the same one");
+            }
+        } catch (IOException e) {
+            throw WalkException.create(WalkException.class, e, in.toString(), out.toString());
+        }
+    }
+
+    private void processDir(final Path dir) {
+        walker.walk(dir, new DirectoryWalker.Visitor() {
+            @Override
+            public void directory(final Path entered) {
+                if (watcher != null) {
+                    watcher.register(entered, dir);
+                }
+            }
+
+            @Override
+            public void file(final Path file) {
+                processFile(file);
+            }
+
+            @Override
+            public void failed(final Path file, final IOException e) {
+                errors.report(WalkFileVisitException.class, e, dir, file);
+                writeError(file.toString());
+            }
+
+            @Override
+            public void dirFailed(final Path failed, final IOException e) {
+                errors.report(WalkDirException.class, e, failed);
+            }
+        });
+    }
+
+    private void processFile(final Path file) {
+        if (duplicates != null) {
+            duplicates.add(file);
+        } else if (!skipped(file)) {
+            if (watcher != null) {
+                watcher.submitted();
+            }
+            engine.file(file);
+        }
+    }
+
+    // failed entries are not part of duplicates report
+    private void writeError(final String string) {
+        if (duplicates == null && !skipped(string)) {
+            if (watcher != null) {
+                watcher.submitted();
+            }
+            engine.error(string);
+        }
+    }
+
+    // results written before the checkpoint we resumed from are not computed again,
+    // walk is expected to list them in the same order as before
+    private boolean skipped(final Object name) {
+        submitted++;
+        if (skip == 0) {
+            return false;
+        }
+        if (--skip == 0 && resumedLast != null && !resumedLast.equals(name.toString())) {
+            errors.report(
+                    WalkCheckpointException.class,
+                    new IOException(String.format("walk order changed since checkpoint, expected %s", resumedLast)),
+                    name
+            );
+        }
+        return true;
+    }
+
+    private void writeResult(final byte[] hash, final String name) {
+        if (watcher != null) {
+            watcher.put(name, hash);
+        }
+        try {
+            sink.write(hash, name);
+        } catch (IOException e) {
+            errors.report(WalkWriteOutputException.class, e, sink.file());
+        }
+    }
+
+    private void writeSeparator() {
+        try {
+            sink.separator();
+        } catch (IOException e) {
+            errors.report(WalkWriteOutputException.class, e, sink.file());
+        }
+    }
+
+    private byte[] calcFileHash(final Path file) {
+        try {
+            final BasicFileAttributes attributes = attributes(file);
+            final byte[] cached = cached(file, attributes);
+            if (cached != null) {
+                return recorded(file, attributes, cached);
+            }
+            if (isTreeFile(attributes)) {
+                return treeHashed(file, attributes);
+            }
+            final Hasher hasher = newHasher();
+            reader.read(file, hasher);
+            return hashed(file, attributes, hasher);
+        } catch (IOException e) {
+            errors.report(WalkHashException.class, e, file);
+            return null;
+        }
+    }
+
+    private void calcFileHashAsync(final Path file, final Consumer<byte[]> callback) {
+        final BasicFileAttributes attributes;
+        try {
+            attributes = attributes(file);
+        } catch (IOException e) {
+            errors.report(WalkHashException.class, e, file);
+            callback.accept(null);
+            return;
+        }
+        final byte[] cached = cached(file, attributes);
+        if (cached != null) {
+            callback.accept(recorded(file, attributes, cached));
+            return;
+        }
+        if (isTreeFile(attributes)) {
+            try {
+                callback.accept(treeHashed(file, attributes));
+            } catch (IOException e) {
+                errors.report(WalkHashException.class, e, file);
+                callback.accept(null);
+            }
+            return;
+        }
+        asyncReader.read(file, newHasher(), new CompletionHandler<>() {
+            @Override
+            public void completed(final Hasher hasher, final Path path) {
+                callback.accept(hashed(file, attributes, hasher));
+            }
+
+            @Override
+            public void failed(final Throwable e, final Path path) {
+                errors.report(WalkHashException.class, e instanceof Exception ? (Exception) e : new IOException(e), file);
+                callback.accept(null);
+            }
+        });
+    }
+
+    // attributes are read only if cache, sidecar or tree hash needs them
+    private BasicFileAttributes attributes(final Path file) throws IOException {
+        return cache != null || sidecar != null || tree != null
+                ? Files.readAttributes(file, BasicFileAttributes.class)
+                : null;
+    }
+
+    private boolean isTreeFile(final BasicFileAttributes attributes) {
+        return tree != null && tree.applies(attributes.size());
+    }
+
+    private byte[] treeHashed(final Path file, final BasicFileAttributes attributes) throws IOException {
+        final long start = System.nanoTime();
+        final byte[] hash = tree.hash(file);
+        if (metrics != null) {
+            metrics.fileTreeHashed(attributes.size(), System.nanoTime() - start);
+        }
+        if (cache != null) {
+            cache.put(file, attributes, hash);
+        }
+        return recorded(file, attributes, hash);
+    }
+
+    private byte[] cached(final Path file, final BasicFileAttributes attributes) {
+        final byte[] cached = cache != null ? cache.get(file, attributes) : null;
+        if (cached != null && metrics != null) {
+            metrics.fileCached();
+        }
+        return cached;
+    }
+
+    private Hasher newHasher() {
+        return metrics != null ? new MeteredHasher(function.newHasher()) : function.newHasher();
+    }
+
+    private byte[] hashed(final Path file, final BasicFileAttributes attributes, final Hasher hasher) {
+        final byte[] hash = hasher.digest();
+        if (hasher instanceof MeteredHasher) {
+            metrics.fileHashed((MeteredHasher) hasher);
+        }
+        if (cache != null) {
+            cache.put(file, attributes, hash);
+        }
+        return recorded(file, attributes, hash);
+    }
+
+    // attributes are the ones read before hashing, so a file changed while it was hashed is read again by verification
+    private byte[] recorded(final Path file, final BasicFileAttributes attributes, final byte[] hash) {
+        if (sidecar != null) {
+            sidecar.put(file.toString(), attributes);
+        }
+        return hash;
+    }
+
+    // cuts off output written after the checkpoint
+    private static void resumeOutputFile(final Path file, final long length) throws WalkException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            if (channel.size() < length) {
+                throw new IOException(String.format("output is shorter than checkpoint: %d < %d", channel.size(), length));
+            }
+            channel.truncate(length);
+        } catch (IOException e) {
+            throw WalkException.create(WalkCreateOutputException.class, e, file.toString());
+        }
+    }
+
+    static void initOutputFile(final Path file) throws WalkException {
+        try {
+            if (!Files.exists(file)) {
+                final Path parent = file.getParent();
+                if (parent == null) throw new IOException("File's parent do not exist");
+                if (!Files.exists(parent)) {
+                    Files.createDirectories(parent);
+                }
+                Files.createFile(file);
+            } else {
+                Files.writeString(file, "", StandardCharsets.UTF_8);
+            }
+        } catch (IOException e) {
+            throw WalkException.create(WalkCreateOutputException.class, e, file.toString());
+        }
+    }
+}
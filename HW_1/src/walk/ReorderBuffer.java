@@ -0,0 +1,94 @@
+package walk;
+
+import java.util.function.Consumer;
+
+// Values may be completed in any order but are passed to output strictly in reservation order.
+// At most capacity values are kept, reserve writes out the oldest ones when the buffer is full.
+// All methods except complete must be called from one consumer thread.
+public class ReorderBuffer<T> {
+    private final Object[] slots;
+    private final Consumer<? super T> output;
+    private long head;
+    private long tail;
+
+    public ReorderBuffer(final int capacity, final Consumer<? super T> output) {
+        this.slots = new Object[capacity];
+        this.output = output;
+    }
+
+    public long reserve() {
+        emitReady();
+        synchronized (this) {
+            if (tail - head < slots.length) {
+                return tail++;
+            }
+        }
+        emitHead();
+        emitReady();
+        synchronized (this) {
+            return tail++;
+        }
+    }
+
+    public synchronized void complete(final long sequence, final T value) {
+        slots[index(sequence)] = value;
+        if (sequence == head) {
+            notifyAll();
+        }
+    }
+
+    // writes out everything, waiting for values not completed yet
+    public void drain() {
+        while (emitHead()) {
+            emitReady();
+        }
+    }
+
+    private boolean emitHead() {
+        final T value;
+        synchronized (this) {
+            if (head == tail) {
+                return false;
+            }
+            boolean interrupted = false;
+            while (slots[index(head)] == null) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            value = take();
+        }
+        output.accept(value);
+        return true;
+    }
+
+    private void emitReady() {
+        while (true) {
+            final T value;
+            synchronized (this) {
+                if (head == tail || slots[index(head)] == null) {
+                    return;
+                }
+                value = take();
+            }
+            output.accept(value);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private T take() {
+        final int index = index(head++);
+        final T value = (T) slots[index];
+        slots[index] = null;
+        return value;
+    }
+
+    private int index(final long sequence) {
+        return (int) (sequence % slots.length);
+    }
+}
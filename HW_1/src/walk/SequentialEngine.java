@@ -0,0 +1,27 @@
+package walk;
+
+import java.nio.file.Path;
+
+public class SequentialEngine implements HashEngine {
+    private final FileHasher hasher;
+    private final Output output;
+
+    public SequentialEngine(final FileHasher hasher, final Output output) {
+        this.hasher = hasher;
+        this.output = output;
+    }
+
+    @Override
+    public void file(final Path file) {
+        output.write(hasher.hash(file), file.toString());
+    }
+
+    @Override
+    public void error(final String name) {
+        output.write(null, name);
+    }
+
+    @Override
+    public void close() {
+    }
+}
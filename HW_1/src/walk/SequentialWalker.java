@@ -0,0 +1,75 @@
+package walk;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+
+public class SequentialWalker implements DirectoryWalker {
+    private final WalkFilter filter;
+
+    public SequentialWalker(final WalkFilter filter) {
+        this.filter = filter;
+    }
+
+    @Override
+    public void walk(final Path dir, final Visitor visitor) {
+        final WalkFilter.Scope scope;
+        try {
+            scope = filter.scope(dir);
+        } catch (IOException e) {
+            visitor.failed(dir, e);
+            return;
+        }
+        walk(dir, scope, visitor);
+    }
+
+    @Override
+    public void walk(final Path dir, final WalkFilter.Scope scope, final Visitor visitor) {
+        try {
+            Files.walkFileTree(dir, filter.visitOptions(), Integer.MAX_VALUE, new SimpleFileVisitor<>() {
+                // depth of the directory being listed
+                private int depth = -1;
+
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                    try {
+                        if (!scope.enter(dir, depth + 1)) {
+                            return FileVisitResult.SKIP_SUBTREE;
+                        }
+                    } catch (IOException e) {
+                        visitor.failed(dir, e);
+                        return FileVisitResult.SKIP_SUBTREE;
+                    }
+                    depth++;
+                    visitor.directory(dir);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    if (scope.accept(file, attrs)) {
+                        visitor.file(file);
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                    visitor.failed(file, exc);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+                    depth--;
+                    return super.postVisitDirectory(dir, exc);
+                }
+            });
+        } catch (IOException e) {
+            visitor.dirFailed(dir, e);
+        }
+    }
+}
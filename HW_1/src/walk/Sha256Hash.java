@@ -0,0 +1,45 @@
+package walk;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+public class Sha256Hash implements HashFunction {
+    private static final String algorithm = "SHA-256";
+
+    @Override
+    public String name() {
+        return "sha256";
+    }
+
+    @Override
+    public int length() {
+        return 32;
+    }
+
+    @Override
+    public Hasher newHasher() {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(algorithm + " is not supported by this JVM", e);
+        }
+        return new Hasher() {
+            @Override
+            public void update(final ByteBuffer bytes) {
+                digest.update(bytes);
+            }
+
+            @Override
+            public void update(final byte[] bytes, final int offset, final int length) {
+                digest.update(bytes, offset, length);
+            }
+
+            @Override
+            public byte[] digest() {
+                return digest.digest();
+            }
+        };
+    }
+}
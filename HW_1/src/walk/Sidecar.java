@@ -0,0 +1,138 @@
+package walk;
+
+import exceptions.WalkException;
+import exceptions.WalkSidecarException;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Size and modification time of every hashed file, keyed by its name in the output.
+// Written next to the output, so verification can tell changed files without reading them.
+public class Sidecar {
+    private static final long magic = 0x5741_4C4B_5349_4445L;
+    private static final int version = 1;
+    private static final int bufferSize = 1 << 16;
+
+    private final Path file;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private boolean loaded;
+
+    private Sidecar(final Path file) {
+        this.file = file;
+    }
+
+    public static Path file(final Path output) {
+        return output.resolveSibling(output.getFileName() + ".attrs");
+    }
+
+    public static Sidecar empty(final Path file) {
+        return new Sidecar(file);
+    }
+
+    // starts with an empty sidecar if file is missing or broken
+    public static Sidecar load(final Path file) {
+        final Sidecar sidecar = new Sidecar(file);
+        if (!Files.exists(file)) {
+            return sidecar;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), bufferSize))) {
+            if (in.readLong() != magic || in.readInt() != version) {
+                throw new IOException("not a sidecar file");
+            }
+            for (int count = in.readInt(); count > 0; count--) {
+                final String name = readString(in);
+                sidecar.entries.put(name, new Entry(in.readLong(), in.readLong()));
+            }
+            sidecar.loaded = true;
+        } catch (IOException e) {
+            WalkException.create(WalkSidecarException.class, e, file.toString()).print();
+            sidecar.entries.clear();
+        }
+        return sidecar;
+    }
+
+    public void put(final String name, final BasicFileAttributes attributes) {
+        entries.put(name, new Entry(attributes.size(), modified(attributes)));
+    }
+
+    // null if name was not recorded
+    public Entry get(final String name) {
+        return entries.get(name);
+    }
+
+    // whether entries were read from the file; only files hashed successfully are recorded,
+    // so then a name missing from the sidecar was written as failed
+    public boolean loaded() {
+        return loaded;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public void save() throws WalkException {
+        final Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), bufferSize))) {
+                out.writeLong(magic);
+                out.writeInt(version);
+                out.writeInt(entries.size());
+                for (final Map.Entry<String, Entry> e : entries.entrySet()) {
+                    writeString(out, e.getKey());
+                    out.writeLong(e.getValue().size);
+                    out.writeLong(e.getValue().modified);
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw WalkException.create(WalkSidecarException.class, e, file.toString());
+        }
+    }
+
+    private static long modified(final BasicFileAttributes attributes) {
+        return attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS);
+    }
+
+    private static String readString(final DataInputStream in) throws IOException {
+        final int length = in.readInt();
+        if (length < 0) {
+            throw new IOException("negative string length");
+        }
+        final byte[] bytes = in.readNBytes(length);
+        if (bytes.length != length) {
+            throw new EOFException();
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(final DataOutputStream out, final String string) throws IOException {
+        final byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    public static class Entry {
+        private final long size;
+        private final long modified;
+
+        private Entry(final long size, final long modified) {
+            this.size = size;
+            this.modified = modified;
+        }
+
+        public long size() {
+            return size;
+        }
+
+        public boolean matches(final BasicFileAttributes attributes) {
+            return size == attributes.size() && modified == modified(attributes);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package walk;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class StreamHashReader implements HashReader {
+    private static final int bytesSize = 1024;
+
+    @Override
+    public void read(final Path file, final Hasher hasher) throws IOException {
+        try (InputStream stream = Files.newInputStream(file)) {
+            final byte[] bytes = new byte[bytesSize];
+            int bytesRead;
+            while ((bytesRead = stream.readNBytes(bytes, 0, bytesSize)) > 0) {
+                hasher.update(bytes, 0, bytesRead);
+            }
+        }
+    }
+}
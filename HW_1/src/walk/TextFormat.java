@@ -0,0 +1,117 @@
+package walk;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// hex hash, space and name on every line; tree digests are written as "tree-<leaf>:<chunk>:<root>"
+public class TextFormat implements OutputFormat {
+    private static final byte[] hexDigits = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] lineSeparator = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+
+    private final int length;
+    private final byte[] treePrefix;
+    private final byte[] digits = new byte[20];
+
+    public TextFormat(final String function, final int length) {
+        this.length = length;
+        this.treePrefix = ("tree-" + function + ":").getBytes(StandardCharsets.US_ASCII);
+    }
+
+    @Override
+    public void header(final OutputSink sink) {
+    }
+
+    @Override
+    public void write(final OutputSink sink, final byte[] hash, final CharSequence name) throws IOException {
+        writeHash(sink, hash);
+        sink.putChars(name);
+        sink.put(lineSeparator, 0, lineSeparator.length);
+    }
+
+    @Override
+    public void write(final OutputSink sink, final byte[] hash, final byte[] name, final int nameLength) throws IOException {
+        writeHash(sink, hash);
+        sink.put(name, 0, nameLength);
+        sink.put(lineSeparator, 0, lineSeparator.length);
+    }
+
+    @Override
+    public void separator(final OutputSink sink) throws IOException {
+        sink.put(lineSeparator, 0, lineSeparator.length);
+    }
+
+    // inverse of the digest written by this format, null if digest is malformed
+    public static byte[] parseHash(final String digest) {
+        if (digest.startsWith("tree-")) {
+            final int chunkStart = digest.indexOf(':');
+            final int rootStart = digest.indexOf(':', chunkStart + 1);
+            if (chunkStart == -1 || rootStart == -1) {
+                return null;
+            }
+            final byte[] root = parseHex(digest, rootStart + 1);
+            final long chunk;
+            try {
+                chunk = Long.parseLong(digest.substring(chunkStart + 1, rootStart));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+            if (root == null) {
+                return null;
+            }
+            final byte[] hash = Arrays.copyOf(root, root.length + Long.BYTES);
+            System.arraycopy(Hash.toBytes(chunk), 0, hash, root.length, Long.BYTES);
+            return hash;
+        }
+        return parseHex(digest, 0);
+    }
+
+    private static byte[] parseHex(final String digest, final int from) {
+        final int length = digest.length() - from;
+        if (length == 0 || length % 2 != 0) {
+            return null;
+        }
+        final byte[] hash = new byte[length / 2];
+        for (int i = 0; i < hash.length; i++) {
+            final int high = Character.digit(digest.charAt(from + 2 * i), 16);
+            final int low = Character.digit(digest.charAt(from + 2 * i + 1), 16);
+            if (high == -1 || low == -1) {
+                return null;
+            }
+            hash[i] = (byte) (high << 4 | low);
+        }
+        return hash;
+    }
+
+    private void writeHash(final OutputSink sink, final byte[] hash) throws IOException {
+        if (hash == null) {
+            for (int i = 0; i < 2 * length; i++) {
+                sink.put((byte) '0');
+            }
+        } else if (hash.length == length + Long.BYTES) {
+            sink.put(treePrefix, 0, treePrefix.length);
+            writeDecimal(sink, Hash.getLong(hash, length));
+            sink.put((byte) ':');
+            writeHex(sink, hash, length);
+        } else {
+            writeHex(sink, hash, hash.length);
+        }
+        sink.put((byte) ' ');
+    }
+
+    private static void writeHex(final OutputSink sink, final byte[] hash, final int length) throws IOException {
+        for (int i = 0; i < length; i++) {
+            sink.put(hexDigits[(hash[i] >> 4) & 0xF]);
+            sink.put(hexDigits[hash[i] & 0xF]);
+        }
+    }
+
+    private void writeDecimal(final OutputSink sink, long value) throws IOException {
+        int start = digits.length;
+        do {
+            digits[--start] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value > 0);
+        sink.put(digits, start, digits.length - start);
+    }
+}
@@ -0,0 +1,176 @@
+package walk;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+// Merkle tree over fixed-size chunks: every chunk is hashed with the leaf function,
+// then pairs of digests are hashed together level by level, an odd digest is carried to the next level.
+// Digest is the root followed by the chunk size, so it can be told apart from the leaf function digests.
+public class TreeHash implements HashFunction, AutoCloseable {
+    private static final int bufferSize = 1 << 20;
+
+    private final HashFunction leaf;
+    private final long chunk;
+    private final long threshold;
+    private final ForkJoinPool pool;
+    private final BufferPool buffers;
+
+    public TreeHash(final HashFunction leaf, final long chunk, final long threshold, final int threads) {
+        this.leaf = leaf;
+        this.chunk = chunk;
+        this.threshold = threshold;
+        this.pool = new ForkJoinPool(threads);
+        this.buffers = new BufferPool(threads, bufferSize);
+    }
+
+    // returns null if tree hashing is not requested
+    public static TreeHash of(final Options options, final HashFunction leaf) {
+        final long threshold = options.getSize("tree-threshold", 0);
+        final long chunk = options.getSize("tree-chunk", 64L << 20);
+        final int threads = options.getInt("tree-threads", Runtime.getRuntime().availableProcessors());
+        if (threshold == 0) {
+            return null;
+        }
+        if (chunk == 0 || threads == 0) {
+            throw new IllegalArgumentException("Tree chunk size and threads should be positive");
+        }
+        return new TreeHash(leaf, chunk, threshold, threads);
+    }
+
+    @Override
+    public String name() {
+        return "tree-" + leaf.name();
+    }
+
+    @Override
+    public int length() {
+        return leaf.length() + Long.BYTES;
+    }
+
+    // tree parameters, output written with other ones can not be resumed
+    @Override
+    public String toString() {
+        return String.format("%s/%d/%d", name(), chunk, threshold);
+    }
+
+    // files of at least this size are hashed with the tree instead of the leaf function
+    public boolean applies(final long size) {
+        return size >= threshold;
+    }
+
+    // hashes chunks of the file in parallel, gives the same digest as newHasher
+    public byte[] hash(final Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            final List<Future<byte[]>> leaves = new ArrayList<>();
+            for (long position = 0; position < size || position == 0; position += chunk) {
+                final long from = position;
+                final long to = Math.min(size, position + chunk);
+                leaves.add(pool.submit(() -> hashChunk(channel, from, to)));
+            }
+            final List<byte[]> digests = new ArrayList<>(leaves.size());
+            for (final Future<byte[]> leaf : leaves) {
+                digests.add(leaf.get());
+            }
+            return digest(digests);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while hashing chunks", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    private byte[] hashChunk(final FileChannel channel, long position, final long to) throws IOException {
+        final Hasher hasher = leaf.newHasher();
+        final ByteBuffer buffer = buffers.acquire();
+        try {
+            while (position < to) {
+                buffer.clear().limit((int) Math.min(buffer.capacity(), to - position));
+                final int read = channel.read(buffer, position);
+                if (read == -1) {
+                    break;
+                }
+                position += read;
+                buffer.flip();
+                hasher.update(buffer);
+            }
+        } finally {
+            buffers.release(buffer);
+        }
+        return hasher.digest();
+    }
+
+    private byte[] digest(List<byte[]> level) {
+        while (level.size() > 1) {
+            final List<byte[]> next = new ArrayList<>((level.size() + 1) / 2);
+            for (int i = 0; i + 1 < level.size(); i += 2) {
+                final Hasher hasher = leaf.newHasher();
+                hasher.update(level.get(i), 0, level.get(i).length);
+                hasher.update(level.get(i + 1), 0, level.get(i + 1).length);
+                next.add(hasher.digest());
+            }
+            if (level.size() % 2 == 1) {
+                next.add(level.get(level.size() - 1));
+            }
+            level = next;
+        }
+        return ByteBuffer.allocate(length()).put(level.get(0)).putLong(chunk).array();
+    }
+
+    // sequential version of the tree, chunk boundaries are tracked over the stream
+    @Override
+    public Hasher newHasher() {
+        return new Hasher() {
+            private final List<byte[]> leaves = new ArrayList<>();
+            private Hasher current = leaf.newHasher();
+            private long filled;
+
+            @Override
+            public void update(final ByteBuffer bytes) {
+                final int limit = bytes.limit();
+                while (bytes.hasRemaining()) {
+                    final int length = (int) Math.min(bytes.remaining(), chunk - filled);
+                    bytes.limit(bytes.position() + length);
+                    current.update(bytes);
+                    bytes.limit(limit);
+                    filled += length;
+                    if (filled == chunk) {
+                        leaves.add(current.digest());
+                        current = leaf.newHasher();
+                        filled = 0;
+                    }
+                }
+            }
+
+            @Override
+            public void update(final byte[] bytes, final int offset, final int length) {
+                update(ByteBuffer.wrap(bytes, offset, length));
+            }
+
+            @Override
+            public byte[] digest() {
+                if (filled > 0 || leaves.isEmpty()) {
+                    leaves.add(current.digest());
+                }
+                return TreeHash.this.digest(leaves);
+            }
+        };
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,87 @@
+package walk;
+
+import exceptions.WalkException;
+import exceptions.WalkHashException;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+// Hashes every file on its own virtual thread with plain blocking I/O, at most maxConcurrency files at once.
+// Read buffers are limited separately by the reader's buffer budget.
+public class VirtualEngine implements HashEngine {
+    private static final Method newVirtualExecutor = findVirtualExecutor();
+
+    private final ExecutorService executor;
+    private final Semaphore concurrency;
+    private final ReorderBuffer<HashResult> results;
+    private final FileHasher hasher;
+
+    public VirtualEngine(final int maxConcurrency, final int window, final FileHasher hasher, final Output output) {
+        this.executor = newVirtualExecutor();
+        this.concurrency = new Semaphore(maxConcurrency);
+        this.results = new ReorderBuffer<>(window, result -> result.writeTo(output));
+        this.hasher = hasher;
+    }
+
+    // virtual threads are available since Java 21, the engine is looked up reflectively to build on older JDKs
+    private static Method findVirtualExecutor() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    public static void checkSupported() {
+        if (newVirtualExecutor == null) {
+            throw new IllegalArgumentException(String.format(
+                    "Virtual engine requires Java 21 or newer, running on %s", Runtime.version()
+            ));
+        }
+    }
+
+    private static ExecutorService newVirtualExecutor() {
+        checkSupported();
+        try {
+            return (ExecutorService) newVirtualExecutor.invoke(null);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Unable to create virtual thread executor", e);
+        }
+    }
+
+    @Override
+    public void file(final Path file) {
+        final long sequence = results.reserve();
+        final String name = file.toString();
+        concurrency.acquireUninterruptibly();
+        executor.execute(() -> {
+            byte[] hash = null;
+            try {
+                hash = hasher.hash(file);
+            } catch (RuntimeException e) {
+                WalkException.create(WalkHashException.class, e, name).print();
+            } finally {
+                concurrency.release();
+                results.complete(sequence, new HashResult(hash, name));
+            }
+        });
+    }
+
+    @Override
+    public void error(final String name) {
+        results.complete(results.reserve(), new HashResult(null, name));
+    }
+
+    @Override
+    public void close() {
+        try {
+            results.drain();
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package walk;
+
+// Everything Process needs besides input and output files, parsed from command line options
+public class WalkConfig {
+    private final FlushPolicy policy;
+    private final Compression.Factory compression;
+    private final String compressionName;
+    private final HashEngine.Factory engines;
+    private final HashReader reader;
+    private final AsyncHashReader asyncReader;
+    private final HashFunction function;
+    private final OutputFormat format;
+    private final TreeHash tree;
+    private final HashCache cache;
+    private final WalkFilter filter;
+    private final DirectoryWalker walker;
+    private final int dedupSample;
+    private final WalkMetrics metrics;
+    private final int errorLimit;
+    private final long checkpointInterval;
+    private final boolean resume;
+    private final boolean sidecar;
+    private final boolean watch;
+    private final long watchDebounce;
+    private final long watchInterval;
+
+    private WalkConfig(final Options options) {
+        policy = FlushPolicy.of(options);
+        compression = Compression.factory(options);
+        compressionName = options.get("compress", "none");
+        engines = HashEngine.factory(options);
+        reader = HashReader.of(options);
+        function = HashFunctions.of(options);
+        format = OutputFormat.of(options, function);
+        tree = TreeHash.of(options, function);
+        filter = WalkFilter.of(options);
+        walker = DirectoryWalker.of(options, filter);
+        dedupSample = options.has("dedup") ? DuplicateFinder.sample(options) : 0;
+        metrics = WalkMetrics.of(options);
+        errorLimit = ErrorChannel.limit(options);
+        checkpointInterval = Checkpoint.interval(options);
+        resume = options.has("resume");
+        sidecar = options.has("sidecar");
+        if (checkpointInterval > 0 && dedupSample > 0) {
+            throw new IllegalArgumentException("Checkpoints can not be used in dedup mode");
+        }
+        if (sidecar && dedupSample > 0) {
+            throw new IllegalArgumentException("Sidecar can not be written in dedup mode");
+        }
+        watch = options.has("watch");
+        watchDebounce = Watcher.debounce(options);
+        watchInterval = Watcher.interval(options);
+        if (watch && (dedupSample > 0 || checkpointInterval > 0)) {
+            throw new IllegalArgumentException("Watch mode can not be used with dedup mode or checkpoints");
+        }
+        cache = HashCache.of(options, function, tree);
+        asyncReader = AsyncHashReader.of(options);
+    }
+
+    // throws IllegalArgumentException on invalid or unknown options
+    public static WalkConfig of(final Options options) {
+        final WalkConfig config = new WalkConfig(options);
+        options.checkUnknown();
+        return config;
+    }
+
+    public FlushPolicy policy() {
+        return policy;
+    }
+
+    // a new one for every output, null if output is not compressed
+    public Compression compression() {
+        return compression != null ? compression.create() : null;
+    }
+
+    public OutputFormat format() {
+        return format;
+    }
+
+    public HashEngine.Factory engines() {
+        return engines;
+    }
+
+    public HashReader reader() {
+        return reader;
+    }
+
+    // null unless async engine is used
+    public AsyncHashReader asyncReader() {
+        return asyncReader;
+    }
+
+    public HashFunction function() {
+        return function;
+    }
+
+    // null unless big files are hashed with a tree over function
+    public TreeHash tree() {
+        return tree;
+    }
+
+    // null if cache is not used
+    public HashCache cache() {
+        return cache;
+    }
+
+    public WalkFilter filter() {
+        return filter;
+    }
+
+    public DirectoryWalker walker() {
+        return walker;
+    }
+
+    // size of samples in dedup mode, 0 if files are just hashed
+    public int dedupSample() {
+        return dedupSample;
+    }
+
+    // null if metrics are not collected
+    public WalkMetrics metrics() {
+        return metrics;
+    }
+
+    // number of printed errors of one kind per directory
+    public int errorLimit() {
+        return errorLimit;
+    }
+
+    // milliseconds between checkpoints, 0 if checkpoints are off
+    public long checkpointInterval() {
+        return checkpointInterval;
+    }
+
+    public boolean resume() {
+        return resume;
+    }
+
+    // whether sizes and modification times of hashed files are written next to the output
+    public boolean sidecar() {
+        return sidecar;
+    }
+
+    // whether output is kept up to date after the walk, until the process is stopped
+    public boolean watch() {
+        return watch;
+    }
+
+    // milliseconds a changed file should stay quiet before it is hashed in watch mode
+    public long watchDebounce() {
+        return watchDebounce;
+    }
+
+    // milliseconds between rewrites of the output in watch mode
+    public long watchInterval() {
+        return watchInterval;
+    }
+
+    // options the output depends on, output can be resumed only with the same ones
+    public String signature() {
+        return String.join(" ",
+                function.name(),
+                format.getClass().getSimpleName(),
+                compressionName,
+                String.valueOf(tree),
+                sidecar ? "sidecar" : "no-sidecar"
+        );
+    }
+}
@@ -0,0 +1,96 @@
+package walk;
+
+import exceptions.*;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+
+// Converts binary (optionally compressed) walk output, by default back into text:
+// WalkConvert <input> <output> [--format=text|binary] [--compress=none|gzip|block]
+public class WalkConvert {
+    public static void main(final String[] args) {
+        try {
+            convert(args);
+        } catch (WalkException e) {
+            e.print();
+        }
+    }
+
+    public static void convert(final String[] args) throws WalkException {
+        final Options options;
+        final Path in, out;
+        try {
+            if (args == null) {
+                throw new IllegalArgumentException("args can not be null");
+            }
+            options = new Options(args);
+            if (options.positional().size() != 2) {
+                throw new IllegalArgumentException(String.format("Wrong number of arguments: %d, required: 2", options.positional().size()));
+            }
+        } catch (IllegalArgumentException e) {
+            throw WalkException.create(WalkException.class, e);
+        }
+        try {
+            in = Path.of(options.positional().get(0));
+            out = Path.of(options.positional().get(1));
+        } catch (InvalidPathException e) {
+            throw WalkException.create(WalkFormatException.class, e);
+        }
+        Process.checkSameFile(in, out);
+
+        try (InputStream input = Compression.decompress(Files.newInputStream(in))) {
+            final BinaryFormat.Reader reader = new BinaryFormat.Reader(new DataInputStream(input));
+            final FlushPolicy policy;
+            final OutputFormat format;
+            final Compression compression;
+            try {
+                policy = FlushPolicy.of(options);
+                format = OutputFormat.of(options, reader.function(), reader.length());
+                compression = Compression.of(options);
+                options.checkUnknown();
+            } catch (IllegalArgumentException e) {
+                throw WalkException.create(WalkException.class, e);
+            }
+            Process.initOutputFile(out);
+            final OutputSink sink;
+            try {
+                sink = new OutputSink(out, policy, format, compression);
+            } catch (IOException e) {
+                throw WalkException.create(WalkCreateOutputException.class, e, out.toString());
+            }
+            try {
+                while (reader.next()) {
+                    write(sink, reader);
+                }
+            } finally {
+                close(sink);
+            }
+        } catch (IOException e) {
+            throw WalkException.create(WalkInputException.class, e, in.toString());
+        }
+    }
+
+    private static void write(final OutputSink sink, final BinaryFormat.Reader reader) throws WalkException {
+        try {
+            if (reader.isSeparator()) {
+                sink.separator();
+            } else {
+                sink.write(reader.hash(), reader.name(), reader.nameLength());
+            }
+        } catch (IOException e) {
+            throw WalkException.create(WalkWriteOutputException.class, e, sink.file().toString());
+        }
+    }
+
+    private static void close(final OutputSink sink) throws WalkException {
+        try {
+            sink.close();
+        } catch (IOException e) {
+            throw WalkException.create(WalkWriteOutputException.class, e, sink.file().toString());
+        }
+    }
+}
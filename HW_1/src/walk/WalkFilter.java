@@ -0,0 +1,159 @@
+package walk;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Rules deciding which entries under a walked directory are visited. Directories are checked before
+// they are listed, so excluded subtrees are never read. Files named in the input are not filtered.
+// Patterns match either the path relative to the walked directory or the entry name:
+// --exclude=.git skips every .git directory, --include=*.java keeps only java files.
+public class WalkFilter {
+    private static final Map<String, PathMatcher> matchers = new ConcurrentHashMap<>();
+
+    private final List<PathMatcher> includes;
+    private final List<PathMatcher> excludes;
+    private final int maxDepth;
+    private final long maxSize;
+    private final boolean followLinks;
+    private final boolean skipLinks;
+    private final boolean oneFileSystem;
+
+    private WalkFilter(
+            final List<PathMatcher> includes,
+            final List<PathMatcher> excludes,
+            final int maxDepth,
+            final long maxSize,
+            final boolean followLinks,
+            final boolean skipLinks,
+            final boolean oneFileSystem
+    ) {
+        this.includes = includes;
+        this.excludes = excludes;
+        this.maxDepth = maxDepth;
+        this.maxSize = maxSize;
+        this.followLinks = followLinks;
+        this.skipLinks = skipLinks;
+        this.oneFileSystem = oneFileSystem;
+    }
+
+    public static WalkFilter of(final Options options) {
+        final List<PathMatcher> includes = new ArrayList<>();
+        final List<PathMatcher> excludes = new ArrayList<>();
+        addMatchers(includes, "glob", options.getAll("include"));
+        addMatchers(includes, "regex", options.getAll("include-regex"));
+        addMatchers(excludes, "glob", options.getAll("exclude"));
+        addMatchers(excludes, "regex", options.getAll("exclude-regex"));
+        final int maxDepth = options.getInt("max-depth", Integer.MAX_VALUE);
+        final long maxSize = options.getSize("max-size", Long.MAX_VALUE);
+        final boolean followLinks = options.has("follow-links");
+        final boolean skipLinks = options.has("skip-links");
+        final boolean oneFileSystem = options.has("one-file-system");
+        if (maxDepth == 0) {
+            throw new IllegalArgumentException("Maximum depth should be positive");
+        }
+        if (followLinks && skipLinks) {
+            throw new IllegalArgumentException("Links can not be both followed and skipped");
+        }
+        return new WalkFilter(includes, excludes, maxDepth, maxSize, followLinks, skipLinks, oneFileSystem);
+    }
+
+    private static void addMatchers(final List<PathMatcher> to, final String syntax, final List<String> patterns) {
+        for (final String pattern : patterns) {
+            try {
+                to.add(matchers.computeIfAbsent(syntax + ":" + pattern, FileSystems.getDefault()::getPathMatcher));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(String.format("Invalid %s pattern %s: %s", syntax, pattern, e.getMessage()), e);
+            }
+        }
+    }
+
+    // options for Files.walkFileTree
+    public Set<FileVisitOption> visitOptions() {
+        return followLinks ? EnumSet.of(FileVisitOption.FOLLOW_LINKS) : EnumSet.noneOf(FileVisitOption.class);
+    }
+
+    // whether directory links are walked into, otherwise links are visited as files or skipped
+    public boolean followLinks() {
+        return followLinks;
+    }
+
+    public Scope scope(final Path root) throws IOException {
+        return new Scope(root, oneFileSystem ? Files.getFileStore(root) : null, 0);
+    }
+
+    // Rules applied to one walked directory
+    public class Scope {
+        private final Path root;
+        private final FileStore store;
+        // depth of the walked directory below root
+        private final int offset;
+
+        private Scope(final Path root, final FileStore store, final int offset) {
+            this.root = root;
+            this.store = store;
+            this.offset = offset;
+        }
+
+        // same rules for walking dir under root again, dir itself should be already entered
+        public Scope subtree(final Path dir) {
+            return new Scope(root, store, depth(dir));
+        }
+
+        public int depth(final Path path) {
+            return path.equals(root) ? 0 : root.relativize(path).getNameCount();
+        }
+
+        // depth is counted from the walked directory, which is always entered
+        public boolean enter(final Path dir, final int depth) throws IOException {
+            if (depth == 0) {
+                return true;
+            }
+            return depth + offset < maxDepth
+                    && !matches(excludes, dir)
+                    && (store == null || store.equals(Files.getFileStore(dir)));
+        }
+
+        // attributes are the ones the walker has, of the link itself unless links are followed
+        public boolean accept(final Path file, final BasicFileAttributes attributes) {
+            if (skipLinks && attributes.isSymbolicLink()) {
+                return false;
+            }
+            return !matches(excludes, file)
+                    && (includes.isEmpty() || matches(includes, file))
+                    && (maxSize == Long.MAX_VALUE || size(file, attributes) <= maxSize);
+        }
+
+        private boolean matches(final List<PathMatcher> matchers, final Path path) {
+            if (matchers.isEmpty()) {
+                return false;
+            }
+            final Path relative = root.relativize(path);
+            final Path name = path.getFileName();
+            for (final PathMatcher matcher : matchers) {
+                if (matcher.matches(relative) || name != null && matcher.matches(name)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    // size of the link target, a broken link is left for hashing to report
+    private static long size(final Path file, final BasicFileAttributes attributes) {
+        if (!attributes.isSymbolicLink()) {
+            return attributes.size();
+        }
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
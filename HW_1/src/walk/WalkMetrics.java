@@ -0,0 +1,183 @@
+package walk;
+
+import exceptions.WalkException;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Counters of a walk, updated concurrently from hashing threads
+public class WalkMetrics implements WalkMetricsMBean, AutoCloseable {
+    private static final String objectName = "Walk:type=Metrics";
+
+    private final long started = System.nanoTime();
+    private final LongAdder files = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final Map<Class<?>, LongAdder> errors = new ConcurrentHashMap<>();
+    private final LatencyHistogram open = new LatencyHistogram();
+    private final LatencyHistogram read = new LatencyHistogram();
+    private final LatencyHistogram hash = new LatencyHistogram();
+    private final PrintStream progressStream = System.err;
+    private final long progressInterval;
+    private final boolean jmx;
+    private final boolean summary;
+    private ScheduledExecutorService progress;
+    private ObjectName registered;
+
+    private WalkMetrics(final long progressInterval, final boolean jmx, final boolean summary) {
+        this.progressInterval = progressInterval;
+        this.jmx = jmx;
+        this.summary = summary;
+    }
+
+    // returns null if metrics are not requested
+    public static WalkMetrics of(final Options options) {
+        final long interval = options.getLong("progress", 0);
+        final boolean jmx = options.has("jmx");
+        final boolean summary = options.has("metrics");
+        return interval == 0 && !jmx && !summary ? null : new WalkMetrics(interval, jmx, summary);
+    }
+
+    public void start() {
+        if (jmx) {
+            register();
+        }
+        if (progressInterval > 0) {
+            startProgress(progressInterval);
+        }
+    }
+
+    private void register() {
+        try {
+            final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            final ObjectName name = new ObjectName(objectName);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(this, name);
+            registered = name;
+        } catch (JMException e) {
+            throw new IllegalStateException("Unable to register walk metrics MBean", e);
+        }
+    }
+
+    private void startProgress(final long interval) {
+        progress = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "walk-progress");
+            thread.setDaemon(true);
+            return thread;
+        });
+        progress.scheduleAtFixedRate(() -> progressStream.println(progressLine()), interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public void fileHashed(final MeteredHasher hasher) {
+        final long end = System.nanoTime();
+        final long openTime = hasher.openTime(end);
+        files.increment();
+        bytes.add(hasher.bytes());
+        open.record(openTime);
+        hash.record(hasher.hashTime());
+        read.record(end - hasher.start() - openTime - hasher.hashTime());
+    }
+
+    // file hashed with a tree: chunks are read and hashed in parallel, so only the total time is known
+    public void fileTreeHashed(final long size, final long time) {
+        files.increment();
+        bytes.add(size);
+        hash.record(time);
+    }
+
+    // file which hash was taken from the cache
+    public void fileCached() {
+        files.increment();
+    }
+
+    public void error(final Class<? extends WalkException> type) {
+        errors.computeIfAbsent(type, c -> new LongAdder()).increment();
+    }
+
+    public String progressLine() {
+        return String.format(
+                "[walk] %.1fs: %d files, %d MiB, %.1f MiB/s, %d errors",
+                (System.nanoTime() - started) / 1e9,
+                getFilesVisited(), getBytesHashed() >> 20, getBytesPerSecond() / (1 << 20), getErrors()
+        );
+    }
+
+    public String summary() {
+        return String.format(
+                "%s%n  errors: %s%n  open: %s%n  read: %s%n  hash: %s",
+                progressLine(), getErrorsByType(), open, read, hash
+        );
+    }
+
+    @Override
+    public long getFilesVisited() {
+        return files.sum();
+    }
+
+    @Override
+    public long getBytesHashed() {
+        return bytes.sum();
+    }
+
+    @Override
+    public long getErrors() {
+        return errors.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    @Override
+    public String getErrorsByType() {
+        final Map<String, Long> byType = new TreeMap<>();
+        errors.forEach((type, count) -> byType.put(type.getSimpleName(), count.sum()));
+        return byType.toString();
+    }
+
+    @Override
+    public double getBytesPerSecond() {
+        final long elapsed = System.nanoTime() - started;
+        return elapsed == 0 ? 0 : getBytesHashed() * 1e9 / elapsed;
+    }
+
+    @Override
+    public String getOpenLatency() {
+        return open.toString();
+    }
+
+    @Override
+    public String getReadLatency() {
+        return read.toString();
+    }
+
+    @Override
+    public String getHashLatency() {
+        return hash.toString();
+    }
+
+    // stops reporting, prints summary if it was requested
+    @Override
+    public void close() {
+        if (progress != null) {
+            progress.shutdownNow();
+        }
+        if (summary) {
+            progressStream.println(summary());
+        }
+        if (registered != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(registered);
+            } catch (JMException ignored) {
+                // already gone
+            }
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package walk;
+
+public interface WalkMetricsMBean {
+    long getFilesVisited();
+
+    long getBytesHashed();
+
+    long getErrors();
+
+    // error count per WalkException subclass
+    String getErrorsByType();
+
+    double getBytesPerSecond();
+
+    // latency until the first bytes of a file are read, including open
+    String getOpenLatency();
+
+    String getReadLatency();
+
+    String getHashLatency();
+}
@@ -0,0 +1,260 @@
+package walk;
+
+import exceptions.*;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Checks text walk output against the filesystem and writes only the entries that do not hold any more:
+// WalkVerify <output> <report> [--full] [--tree-threads=<n>] [hash, engine and reader options of the walk]
+// Files with tree digests are hashed with a tree of the chunk size written in the digest.
+// Report lines are "mismatch <name>", "missing <name>" or "error <name>". If the walk wrote a sidecar,
+// files with the recorded size and modification time are not read unless --full is given, files of another
+// size are not read at all, and entries written as failed are reported only if the file can be hashed now.
+// Without a sidecar failed entries can not be told from hashes, so every entry is checked.
+public class WalkVerify {
+    private static final int inputBatchSize = 1024;
+    private static final int errorsCapacity = 1024;
+
+    // results of files which are judged without hashing, compared by identity
+    private static final byte[] missing = new byte[0];
+    private static final byte[] unchanged = new byte[0];
+    private static final byte[] resized = new byte[0];
+
+    private final HashFunction function;
+    private final HashReader reader;
+    private final int treeThreads;
+    private final Sidecar sidecar;
+    private final boolean full;
+    private final ErrorChannel errors;
+    private final BufferedWriter report;
+    // expected hashes of submitted entries, results come back in submission order
+    private final Queue<byte[]> expected = new ArrayDeque<>();
+    // chunk size of submitted files with tree digests; keyed by identity, since a name can be listed twice
+    private final Map<Path, Long> treeChunks = Collections.synchronizedMap(new IdentityHashMap<>());
+    private final Map<Long, TreeHash> trees = new ConcurrentHashMap<>();
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder rehashed = new LongAdder();
+    private final LongAdder bytesRead = new LongAdder();
+    private long files;
+    private long mismatches;
+    private long missed;
+    private long failed;
+    private IOException writeError;
+
+    private WalkVerify(
+            final HashFunction function,
+            final HashReader reader,
+            final int treeThreads,
+            final Sidecar sidecar,
+            final boolean full,
+            final ErrorChannel errors,
+            final BufferedWriter report
+    ) {
+        this.function = function;
+        this.reader = reader;
+        this.treeThreads = treeThreads;
+        this.sidecar = sidecar;
+        this.full = full;
+        this.errors = errors;
+        this.report = report;
+    }
+
+    public static void main(final String[] args) {
+        try {
+            verify(args);
+        } catch (WalkException e) {
+            e.print();
+        }
+    }
+
+    public static void verify(final String[] args) throws WalkException {
+        final Options options;
+        final HashFunction function;
+        final HashEngine.Factory engines;
+        final HashReader reader;
+        final int treeThreads;
+        final int errorLimit;
+        final boolean full;
+        try {
+            if (args == null) {
+                throw new IllegalArgumentException("args can not be null");
+            }
+            options = new Options(args);
+            if (options.positional().size() != 2) {
+                throw new IllegalArgumentException(String.format("Wrong number of arguments: %d, required: 2", options.positional().size()));
+            }
+            function = HashFunctions.of(options);
+            engines = HashEngine.factory(options);
+            reader = HashReader.of(options);
+            errorLimit = ErrorChannel.limit(options);
+            full = options.has("full");
+            treeThreads = options.getInt("tree-threads", Runtime.getRuntime().availableProcessors());
+            if (treeThreads == 0) {
+                throw new IllegalArgumentException("Tree threads should be positive");
+            }
+            options.checkUnknown();
+        } catch (IllegalArgumentException e) {
+            throw WalkException.create(WalkException.class, e);
+        }
+
+        final Path in, out;
+        try {
+            in = Path.of(options.positional().get(0));
+            out = Path.of(options.positional().get(1));
+        } catch (InvalidPathException e) {
+            throw WalkException.create(WalkFormatException.class, e);
+        }
+        Process.checkSameFile(in, out);
+        Process.initOutputFile(out);
+
+        final Sidecar sidecar = Sidecar.load(Sidecar.file(in));
+        final WalkVerify verify;
+        try (BufferedWriter report = Files.newBufferedWriter(out, StandardCharsets.UTF_8);
+             ErrorChannel errors = new ErrorChannel(errorsCapacity, errorLimit, null, System.err)) {
+            verify = new WalkVerify(function, reader, treeThreads, sidecar, full, errors, report);
+            try (HashEngine engine = engines.create(verify::hash, verify::check)) {
+                verify.process(in, engine);
+            } finally {
+                verify.trees.values().forEach(TreeHash::close);
+            }
+            if (verify.writeError != null) {
+                throw verify.writeError;
+            }
+        } catch (IOException e) {
+            throw WalkException.create(WalkWriteOutputException.class, e, out.toString());
+        }
+        System.out.println(verify.stats());
+    }
+
+    private void process(final Path in, final HashEngine engine) throws WalkException {
+        try (LineReader lines = new LineReader(in, inputBatchSize)) {
+            LineReader.Batch batch;
+            while ((batch = lines.next()) != null) {
+                for (int i = 0; i < batch.size(); i++) {
+                    processLine(batch.line(i), batch.error(i), String.format("%s:%d", in, batch.lineNumber(i)), engine);
+                }
+            }
+        } catch (IOException e) {
+            throw WalkException.create(WalkInputException.class, e, in.toString());
+        }
+    }
+
+    private void processLine(final String line, final CharacterCodingException error, final String position, final HashEngine engine) {
+        // empty lines separate groups of duplicates
+        if (line.isEmpty()) {
+            return;
+        }
+        final int space = line.indexOf(' ');
+        final byte[] hash = space == -1 ? null : TextFormat.parseHash(line.substring(0, space));
+        final boolean isTree = hash != null && hash.length == function.length() + Long.BYTES;
+        if (error != null || hash == null || hash.length != function.length() && !isTree
+                || isTree && Hash.getLong(hash, function.length()) <= 0) {
+            errors.report(
+                    WalkFormatException.class,
+                    error != null ? error : new IOException(String.format("expected <%s digest> <name>: %s", function.name(), line)),
+                    position
+            );
+            files++;
+            failed++;
+            write("error", line);
+            return;
+        }
+        final String name = line.substring(space + 1);
+        final Path file;
+        try {
+            file = Path.of(name);
+        } catch (InvalidPathException e) {
+            expected.add(hash);
+            engine.error(name);
+            return;
+        }
+        expected.add(hash);
+        if (isTree) {
+            treeChunks.put(file, Hash.getLong(hash, function.length()));
+        }
+        engine.file(file);
+    }
+
+    // called in parallel by the engine
+    private byte[] hash(final Path file) {
+        final Long chunk = treeChunks.remove(file);
+        try {
+            final BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            final Sidecar.Entry recorded = sidecar.get(file.toString());
+            if (recorded != null && recorded.size() != attributes.size()) {
+                skipped.increment();
+                return resized;
+            }
+            if (recorded != null && !full && recorded.matches(attributes)) {
+                skipped.increment();
+                return unchanged;
+            }
+            rehashed.increment();
+            bytesRead.add(attributes.size());
+            if (chunk != null) {
+                return trees.computeIfAbsent(chunk, c -> new TreeHash(function, c, 0, treeThreads)).hash(file);
+            }
+            final Hasher hasher = function.newHasher();
+            reader.read(file, hasher);
+            return hasher.digest();
+        } catch (NoSuchFileException e) {
+            return missing;
+        } catch (IOException e) {
+            errors.report(WalkHashException.class, e, file);
+            return null;
+        }
+    }
+
+    // called by the submitting thread in submission order
+    private void check(final byte[] hash, final String name) {
+        final byte[] wanted = expected.remove();
+        final boolean wasFailed = sidecar.loaded() && sidecar.get(name) == null;
+        files++;
+        if (hash == unchanged) {
+            return;
+        }
+        if (hash == missing) {
+            if (!wasFailed) {
+                missed++;
+                write("missing", name);
+            }
+        } else if (hash == null) {
+            if (!wasFailed) {
+                failed++;
+                write("error", name);
+            }
+        } else if (hash == resized || !Arrays.equals(hash, wanted)) {
+            mismatches++;
+            write("mismatch", name);
+        }
+    }
+
+    private void write(final String kind, final String name) {
+        if (writeError != null) {
+            return;
+        }
+        try {
+            report.write(kind);
+            report.write(' ');
+            report.write(name);
+            report.newLine();
+        } catch (IOException e) {
+            writeError = e;
+        }
+    }
+
+    private String stats() {
+        return String.format(
+                "Verify: %d entries, %d judged by sidecar, %d rehashed (%d bytes read), %d mismatches, %d missing, %d new errors",
+                files, skipped.sum(), rehashed.sum(), bytesRead.sum(), mismatches, missed, failed
+        );
+    }
+}
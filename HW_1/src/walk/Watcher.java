@@ -0,0 +1,510 @@
+package walk;
+
+import exceptions.WalkDirException;
+import exceptions.WalkFileVisitException;
+import exceptions.WalkWriteOutputException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+// Keeps RecursiveWalk output up to date after the initial walk. Directories entered by the walk are
+// registered with a WatchService. Created and modified files are rehashed once they stay quiet for the
+// debounce delay, deleted ones are dropped. Created directories and directories which lost events are
+// walked again. Results live in memory in the order of the input, every line of the input keeps its records,
+// and replace the output every interval if they changed. Files created under a walked directory are appended
+// to the records of its lines. Everything except stop is called from the walking thread.
+public class Watcher implements AutoCloseable {
+    private static final char separator = File.separatorChar;
+
+    private final Path output;
+    private final WalkConfig config;
+    private final ErrorChannel errors;
+    private final long debounce;
+    private final long interval;
+    private final WatchService service;
+    private final Map<WatchKey, Registration> registrations = new HashMap<>();
+    private final Map<Path, WalkFilter.Scope> scopes = new HashMap<>();
+    // records of every input line, in input order
+    private final List<Segment> segments = new ArrayList<>();
+    // segment of every record submitted by the initial walk and not put yet
+    private final Queue<Segment> submitted = new ArrayDeque<>();
+    // sorted by name, so a deleted directory is a range; a name repeated in the input shares its entry
+    private final NavigableMap<String, Entry> index = new TreeMap<>();
+    // rescheduled changes are moved to the end, so they are in deadline order
+    private final Map<Path, Change> changes = new LinkedHashMap<>();
+    private Thread runner;
+    private volatile boolean running = true;
+    private boolean dirty;
+
+    // service is closed with the watcher
+    public Watcher(final Path output, final WalkConfig config, final WatchService service, final ErrorChannel errors) {
+        this.output = output;
+        this.config = config;
+        this.service = service;
+        this.errors = errors;
+        this.debounce = config.watchDebounce();
+        this.interval = config.watchInterval();
+    }
+
+    // milliseconds a changed file should stay quiet before it is hashed
+    public static long debounce(final Options options) {
+        return options.getLong("watch-debounce", 500);
+    }
+
+    // milliseconds between rewrites of the output
+    public static long interval(final Options options) {
+        final long interval = options.getLong("watch-interval", 5_000);
+        if (interval == 0) {
+            throw new IllegalArgumentException("Watch interval should be positive");
+        }
+        return interval;
+    }
+
+    // next line of the input is processed
+    public void line() {
+        segments.add(new Segment());
+    }
+
+    // record of the current line is submitted to the engine
+    public void submitted() {
+        submitted.add(segments.get(segments.size() - 1));
+    }
+
+    // result of the initial walk, in submission order
+    public void put(final String name, final byte[] hash) {
+        Entry entry = index.get(name);
+        if (entry == null) {
+            entry = new Entry(name);
+            index.put(name, entry);
+        }
+        entry.set(hash, -1, -1);
+        submitted.remove().entries.add(entry);
+    }
+
+    // dir was entered by a walk of root, which is the current line
+    public void register(final Path dir, final Path root) {
+        segments.get(segments.size() - 1).root = root;
+        WalkFilter.Scope scope = scopes.get(root);
+        if (scope == null) {
+            try {
+                scope = config.filter().scope(root);
+            } catch (IOException e) {
+                errors.report(WalkDirException.class, e, root);
+                return;
+            }
+            scopes.put(root, scope);
+        }
+        register(dir, root, scope, null);
+    }
+
+    // file was named in the input, only this file of its directory is watched
+    public void registerFile(final Path file) {
+        final Path parent = file.getParent();
+        register(parent != null ? parent : Path.of(""), null, null, file.getFileName());
+    }
+
+    private void register(final Path dir, final Path root, final WalkFilter.Scope scope, final Path file) {
+        final WatchKey key;
+        try {
+            key = dir.toAbsolutePath().register(service, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY);
+        } catch (IOException e) {
+            errors.report(WalkDirException.class, e, dir);
+            return;
+        }
+        Registration registration = registrations.get(key);
+        if (registration == null || registration.scope == null && scope != null) {
+            final Registration previous = registration;
+            registration = new Registration(dir, root, scope);
+            if (previous != null) {
+                registration.files.addAll(previous.files);
+            }
+            registrations.put(key, registration);
+        }
+        if (file != null) {
+            registration.files.add(file);
+        }
+    }
+
+    // waits for changes until stopped by a shutdown hook
+    public void run(final FileHasher hasher, final DirectoryWalker walker) {
+        runner = Thread.currentThread();
+        final Thread hook = new Thread(this::stop, "walk-watch-stop");
+        Runtime.getRuntime().addShutdownHook(hook);
+        long flushAt = now() + interval;
+        try {
+            while (running) {
+                final long timeout = Math.min(flushAt, nextDeadline()) - now();
+                WatchKey key = service.poll(Math.max(timeout, 0), TimeUnit.MILLISECONDS);
+                while (key != null) {
+                    handle(key);
+                    key = service.poll();
+                }
+                processDue(hasher, walker);
+                if (now() >= flushAt) {
+                    flush();
+                    flushAt = now() + interval;
+                }
+            }
+        } catch (ClosedWatchServiceException e) {
+            // stopped
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            flush();
+        }
+    }
+
+    private void handle(final WatchKey key) {
+        final Registration registration = registrations.get(key);
+        if (registration == null) {
+            key.cancel();
+            return;
+        }
+        for (final WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == OVERFLOW) {
+                if (registration.scope != null) {
+                    schedule(registration.dir, registration, Change.rescan);
+                }
+                for (final Path file : registration.files) {
+                    schedule(registration.dir.resolve(file), registration, Change.modified);
+                }
+                continue;
+            }
+            final Path name = (Path) event.context();
+            if (registration.scope == null && !registration.files.contains(name)) {
+                continue;
+            }
+            final Path child = registration.dir.resolve(name);
+            if (event.kind() == ENTRY_DELETE) {
+                changes.remove(child);
+                removed(child);
+            } else {
+                schedule(child, registration, event.kind() == ENTRY_CREATE ? Change.created : Change.modified);
+            }
+        }
+        if (!key.reset()) {
+            registrations.remove(key);
+        }
+    }
+
+    // a pending change of path is delayed and keeps the strongest kind
+    private void schedule(final Path path, final Registration registration, final int kind) {
+        final Change previous = changes.remove(path);
+        changes.put(path, new Change(now() + debounce, registration, previous != null ? Math.max(kind, previous.kind) : kind));
+    }
+
+    private long nextDeadline() {
+        return changes.isEmpty() ? Long.MAX_VALUE : changes.values().iterator().next().deadline;
+    }
+
+    private void processDue(final FileHasher hasher, final DirectoryWalker walker) {
+        final long now = now();
+        final Batch batch = new Batch();
+        final Iterator<Map.Entry<Path, Change>> due = changes.entrySet().iterator();
+        while (due.hasNext()) {
+            final Map.Entry<Path, Change> entry = due.next();
+            final Change change = entry.getValue();
+            if (change.deadline > now) {
+                break;
+            }
+            due.remove();
+            if (change.kind == Change.rescan) {
+                rescan(entry.getKey(), change.registration, walker, batch);
+            } else {
+                changed(entry.getKey(), change.registration, change.kind == Change.created, walker, batch);
+            }
+        }
+        batch.hash(hasher);
+    }
+
+    // existing directories are watched already, only created ones are walked
+    private void changed(
+            final Path path,
+            final Registration registration,
+            final boolean created,
+            final DirectoryWalker walker,
+            final Batch batch
+    ) {
+        final BasicFileAttributes attributes;
+        try {
+            attributes = attributes(path);
+        } catch (NoSuchFileException e) {
+            removed(path);
+            return;
+        } catch (IOException e) {
+            errors.report(WalkFileVisitException.class, e, path.getParent(), path);
+            updated(path.toString(), null, null, registration.root);
+            return;
+        }
+        final WalkFilter.Scope scope = registration.scope;
+        if (!attributes.isDirectory()) {
+            if (scope == null || scope.accept(path, attributes)) {
+                batch.add(path, attributes, true, registration.root);
+            }
+            return;
+        }
+        try {
+            if (created && scope != null && scope.enter(path, scope.depth(path))) {
+                rescan(path, registration, walker, batch);
+            }
+        } catch (IOException e) {
+            errors.report(WalkDirException.class, e, path);
+        }
+    }
+
+    // walks dir again with the rules of its walk, files which are gone are dropped
+    private void rescan(final Path dir, final Registration registration, final DirectoryWalker walker, final Batch batch) {
+        final WalkFilter.Scope scope = registration.scope;
+        final Path root = registration.root;
+        final Set<String> seen = new HashSet<>();
+        walker.walk(dir, scope.subtree(dir), new DirectoryWalker.Visitor() {
+            @Override
+            public void directory(final Path entered) {
+                register(entered, root, scope, null);
+            }
+
+            @Override
+            public void file(final Path file) {
+                seen.add(file.toString());
+                try {
+                    batch.add(file, attributes(file), false, root);
+                } catch (IOException e) {
+                    failed(file, e);
+                }
+            }
+
+            @Override
+            public void failed(final Path file, final IOException e) {
+                seen.add(file.toString());
+                errors.report(WalkFileVisitException.class, e, dir, file);
+                updated(file.toString(), null, null, root);
+            }
+
+            @Override
+            public void dirFailed(final Path failed, final IOException e) {
+                errors.report(WalkDirException.class, e, failed);
+            }
+        });
+        final String prefix = dir.toString() + separator;
+        final Iterator<Map.Entry<String, Entry>> gone = under(prefix).entrySet().iterator();
+        while (gone.hasNext()) {
+            final Map.Entry<String, Entry> entry = gone.next();
+            if (!seen.contains(entry.getKey())) {
+                entry.getValue().removed = true;
+                gone.remove();
+                dirty = true;
+            }
+        }
+    }
+
+    private BasicFileAttributes attributes(final Path path) throws IOException {
+        final BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        return attributes.isSymbolicLink() && config.filter().followLinks()
+                ? Files.readAttributes(path, BasicFileAttributes.class)
+                : attributes;
+    }
+
+    // path may have been a file or a directory
+    private void removed(final Path path) {
+        final String name = path.toString();
+        final SortedMap<String, Entry> under = under(name + separator);
+        final Entry entry = index.remove(name);
+        if (entry != null) {
+            entry.removed = true;
+            dirty = true;
+        }
+        if (!under.isEmpty()) {
+            under.values().forEach(e -> e.removed = true);
+            under.clear();
+            dirty = true;
+        }
+    }
+
+    private SortedMap<String, Entry> under(final String prefix) {
+        return index.subMap(prefix, prefix.substring(0, prefix.length() - 1) + (char) (separator + 1));
+    }
+
+    // attributes are null if file failed, so it is hashed again on the next change;
+    // a new file is appended to every line which walked root
+    private void updated(final String name, final byte[] hash, final BasicFileAttributes attributes, final Path root) {
+        Entry entry = index.get(name);
+        if (entry == null) {
+            entry = new Entry(name);
+            index.put(name, entry);
+            for (final Segment segment : segments) {
+                if (root != null && root.equals(segment.root)) {
+                    segment.entries.add(entry);
+                }
+            }
+        }
+        if (attributes == null || hash == null) {
+            entry.set(null, -1, -1);
+        } else {
+            entry.set(hash, attributes.size(), modified(attributes));
+        }
+        dirty = true;
+    }
+
+    // replaces the output with the records, through a temporary file so readers never see a partial one
+    private void flush() {
+        if (!dirty) {
+            return;
+        }
+        final Path temp = output.resolveSibling(output.getFileName() + ".tmp");
+        try {
+            Files.deleteIfExists(temp);
+            Files.createFile(temp);
+            try (OutputSink sink = new OutputSink(temp, config.policy(), config.format(), config.compression())) {
+                for (final Segment segment : segments) {
+                    segment.entries.removeIf(entry -> entry.removed);
+                    for (final Entry entry : segment.entries) {
+                        sink.write(entry.hash, entry.name);
+                    }
+                }
+            }
+            Files.move(temp, output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            dirty = false;
+        } catch (IOException e) {
+            errors.report(WalkWriteOutputException.class, e, output);
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException ignored) {
+                // written again on the next flush
+            }
+        }
+    }
+
+    // called by the shutdown hook, waits until the thread which ran the watcher finishes, so the output,
+    // cache and sidecar are written before the JVM halts; changes still being debounced are dropped
+    private void stop() {
+        running = false;
+        try {
+            service.close();
+        } catch (IOException ignored) {
+            // run ends anyway
+        }
+        try {
+            runner.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            service.close();
+        } catch (IOException ignored) {
+            // nothing is watched any more
+        }
+    }
+
+    private static long modified(final BasicFileAttributes attributes) {
+        return attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS);
+    }
+
+    private static long now() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+    }
+
+    // Files to hash after one round of events, unchanged ones are skipped
+    private class Batch {
+        private final List<Path> files = new ArrayList<>();
+        private final List<BasicFileAttributes> attributes = new ArrayList<>();
+        private final List<Path> roots = new ArrayList<>();
+
+        // files found by a rescan are skipped if they look like when they were hashed
+        private void add(final Path file, final BasicFileAttributes attributes, final boolean changed, final Path root) {
+            final Entry entry = index.get(file.toString());
+            if (changed || entry == null || !entry.matches(attributes)) {
+                files.add(file);
+                this.attributes.add(attributes);
+                roots.add(root);
+            }
+        }
+
+        // results come in submission order
+        private void hash(final FileHasher hasher) {
+            if (files.isEmpty()) {
+                return;
+            }
+            final Iterator<BasicFileAttributes> results = attributes.iterator();
+            final Iterator<Path> resultRoots = roots.iterator();
+            try (HashEngine engine = config.engines().create(
+                    hasher,
+                    (hash, name) -> updated(name, hash, results.next(), resultRoots.next())
+            )) {
+                for (final Path file : files) {
+                    engine.file(file);
+                }
+            }
+        }
+    }
+
+    private static class Registration {
+        private final Path dir;
+        // null if only files named in the input are watched
+        private final Path root;
+        private final WalkFilter.Scope scope;
+        private final Set<Path> files = new HashSet<>();
+
+        private Registration(final Path dir, final Path root, final WalkFilter.Scope scope) {
+            this.dir = dir;
+            this.root = root;
+            this.scope = scope;
+        }
+    }
+
+    private static class Change {
+        private static final int modified = 0;
+        private static final int created = 1;
+        // events of the directory were lost
+        private static final int rescan = 2;
+
+        private final long deadline;
+        private final Registration registration;
+        private final int kind;
+
+        private Change(final long deadline, final Registration registration, final int kind) {
+            this.deadline = deadline;
+            this.registration = registration;
+            this.kind = kind;
+        }
+    }
+
+    private static class Segment {
+        // directory walked for the line, null if the line named a file or failed
+        private Path root;
+        private final List<Entry> entries = new ArrayList<>();
+    }
+
+    private static class Entry {
+        private final String name;
+        private byte[] hash;
+        // of the file when it was hashed, -1 if it is not known
+        private long size;
+        private long modified;
+        // dropped from the index, left out of the segments on the next flush
+        private boolean removed;
+
+        private Entry(final String name) {
+            this.name = name;
+        }
+
+        private void set(final byte[] hash, final long size, final long modified) {
+            this.hash = hash;
+            this.size = size;
+            this.modified = modified;
+        }
+
+        private boolean matches(final BasicFileAttributes attributes) {
+            return size == attributes.size() && modified == modified(attributes);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package walk;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+// XXH64 with zero seed, consumes input in 32-byte stripes of four independent lanes
+public class XxHash64 implements HashFunction {
+    private static final long prime1 = 0x9E3779B185EBCA87L;
+    private static final long prime2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long prime3 = 0x165667B19E3779F9L;
+    private static final long prime4 = 0x85EBCA77C2B2AE63L;
+    private static final long prime5 = 0x27D4EB2F165667C5L;
+    private static final int stripe = 32;
+
+    @Override
+    public String name() {
+        return "xxh64";
+    }
+
+    @Override
+    public int length() {
+        return Long.BYTES;
+    }
+
+    @Override
+    public Hasher newHasher() {
+        return new XxHasher();
+    }
+
+    private static long round(long acc, final long input) {
+        acc += input * prime2;
+        acc = Long.rotateLeft(acc, 31);
+        return acc * prime1;
+    }
+
+    private static long merge(long acc, final long value) {
+        acc ^= round(0, value);
+        return acc * prime1 + prime4;
+    }
+
+    private static class XxHasher implements Hasher {
+        private long v1 = prime1 + prime2;
+        private long v2 = prime2;
+        private long v3 = 0;
+        private long v4 = -prime1;
+        private long total;
+        private final ByteBuffer tail = ByteBuffer.allocate(stripe).order(ByteOrder.LITTLE_ENDIAN);
+
+        @Override
+        public void update(final ByteBuffer bytes) {
+            final ByteOrder order = bytes.order();
+            bytes.order(ByteOrder.LITTLE_ENDIAN);
+            int position = bytes.position();
+            final int limit = bytes.limit();
+            total += limit - position;
+            if (tail.position() > 0) {
+                final int length = Math.min(tail.remaining(), limit - position);
+                tail.put(tail.position(), bytes, position, length);
+                tail.position(tail.position() + length);
+                position += length;
+                if (tail.hasRemaining()) {
+                    bytes.position(limit).order(order);
+                    return;
+                }
+                consume(tail, 0);
+                tail.clear();
+            }
+            for (; limit - position >= stripe; position += stripe) {
+                consume(bytes, position);
+            }
+            tail.put(0, bytes, position, limit - position);
+            tail.position(limit - position);
+            bytes.position(limit).order(order);
+        }
+
+        private void consume(final ByteBuffer bytes, final int position) {
+            v1 = round(v1, bytes.getLong(position));
+            v2 = round(v2, bytes.getLong(position + 8));
+            v3 = round(v3, bytes.getLong(position + 16));
+            v4 = round(v4, bytes.getLong(position + 24));
+        }
+
+        @Override
+        public void update(final byte[] bytes, final int offset, final int length) {
+            update(ByteBuffer.wrap(bytes, offset, length));
+        }
+
+        @Override
+        public byte[] digest() {
+            long hash;
+            if (total >= stripe) {
+                hash = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7) + Long.rotateLeft(v3, 12) + Long.rotateLeft(v4, 18);
+                hash = merge(hash, v1);
+                hash = merge(hash, v2);
+                hash = merge(hash, v3);
+                hash = merge(hash, v4);
+            } else {
+                hash = prime5;
+            }
+            hash += total;
+
+            final int length = tail.position();
+            int i = 0;
+            for (; i + 8 <= length; i += 8) {
+                hash ^= round(0, tail.getLong(i));
+                hash = Long.rotateLeft(hash, 27) * prime1 + prime4;
+            }
+            if (i + 4 <= length) {
+                hash ^= (tail.getInt(i) & 0xFFFF_FFFFL) * prime1;
+                hash = Long.rotateLeft(hash, 23) * prime2 + prime3;
+                i += 4;
+            }
+            for (; i < length; i++) {
+                hash ^= (tail.get(i) & 0xFF) * prime5;
+                hash = Long.rotateLeft(hash, 11) * prime1;
+            }
+
+            hash ^= hash >>> 33;
+            hash *= prime2;
+            hash ^= hash >>> 29;
+            hash *= prime3;
+            hash ^= hash >>> 32;
+            return Hash.toBytes(hash);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+@echo off
+rem Runs Walk benchmarks, results are written to results.json
+rem Expects jmh-core, jmh-generator-annprocess and their dependencies (jopt-simple, commons-math3) in %JMH_LIB%
+rem JMH does not accept benchmarks in the default package, so they live in the walk package of HW_1
+rem Extra arguments are passed to JMH, e.g. "bench.cmd HashBenchmark -p bufferSize=1024"
+
+if "%JMH_LIB%"=="" set JMH_LIB=../../lib/jmh
+
+javac ^
+  -cp "%JMH_LIB%/*" ^
+  -d out ^
+  ../HW_1/src/*.java ../HW_1/src/walk/*.java ../HW_1/src/exceptions/*.java src/walk/*.java
+
+java -cp "out;%JMH_LIB%/*" org.openjdk.jmh.Main -rf json -rff results.json %*
+
+rmdir /S /Q out > NUL
@@ -0,0 +1,66 @@
+package walk;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HashBenchmark {
+    @Param({"64", "1024", "65536", "1048576"})
+    private int bufferSize;
+
+    private byte[] heap;
+    private ByteBuffer direct;
+
+    @Setup
+    public void setup() {
+        heap = new byte[bufferSize];
+        new Random(239).nextBytes(heap);
+        direct = ByteBuffer.allocateDirect(bufferSize).put(heap).flip();
+    }
+
+    // only hasher benchmarks depend on the hash function, pjw ones are not repeated for every one
+    @State(Scope.Thread)
+    public static class Hashing {
+        @Param({"pjw", "xxh64", "crc32c", "sha256"})
+        private String hash;
+
+        private HashFunction function;
+
+        @Setup
+        public void setup() {
+            function = HashFunctions.get(hash);
+        }
+    }
+
+    @Benchmark
+    public long pjwArray() {
+        return Hash.pjw(heap, bufferSize, 0);
+    }
+
+    @Benchmark
+    public long pjwDirect() {
+        return Hash.pjw(direct, 0);
+    }
+
+    @Benchmark
+    public byte[] hasherArray(final Hashing hashing) {
+        final Hasher hasher = hashing.function.newHasher();
+        hasher.update(heap, 0, bufferSize);
+        return hasher.digest();
+    }
+
+    @Benchmark
+    public byte[] hasherDirect(final Hashing hashing) {
+        final Hasher hasher = hashing.function.newHasher();
+        hasher.update(direct.clear());
+        return hasher.digest();
+    }
+}
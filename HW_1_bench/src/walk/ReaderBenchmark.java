@@ -0,0 +1,61 @@
+package walk;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// one operation reads and hashes the whole file, bytes per second are fileSize * ops per second
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ReaderBenchmark {
+    @Param({"1K", "1M", "64M", "1G", "4G"})
+    private String fileSize;
+
+    @Param({"stream", "channel", "mmap"})
+    private String reader;
+
+    private Path file;
+    private HashReader hashReader;
+    private HashFunction function;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        hashReader = HashReader.of(new Options(new String[]{"--reader=" + reader}));
+        function = HashFunctions.get(HashFunctions.defaultName);
+        file = Files.createTempFile("reader-benchmark", ".bin");
+        generate(file, Options.parseSize("size", fileSize));
+    }
+
+    static void generate(final Path file, long size) throws IOException {
+        final byte[] block = new byte[1 << 20];
+        new Random(239).nextBytes(block);
+        try (OutputStream out = Files.newOutputStream(file)) {
+            while (size > 0) {
+                final int length = (int) Math.min(block.length, size);
+                out.write(block, 0, length);
+                size -= length;
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public byte[] read() throws IOException {
+        final Hasher hasher = function.newHasher();
+        hashReader.read(file, hasher);
+        return hasher.digest();
+    }
+}
@@ -0,0 +1,80 @@
+package walk;
+
+import exceptions.WalkException;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// end-to-end RecursiveWalk over a generated tree of many small files
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class WalkBenchmark {
+    private static final int filesPerDir = 100;
+
+    @Param({"100000"})
+    private int files;
+
+    @Param({"512"})
+    private int fileSize;
+
+    @Param({"1", "8"})
+    private int threads;
+
+    // format and compression, block compression is for binary output only
+    @Param({"text:none", "text:gzip", "binary:none", "binary:gzip", "binary:block"})
+    private String output;
+
+    private Path root;
+    private String[] args;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        root = Files.createTempDirectory("walk-benchmark");
+        final Path tree = root.resolve("tree");
+        for (int i = 0; i < files; i++) {
+            final Path dir = tree.resolve("d" + i / filesPerDir);
+            if (i % filesPerDir == 0) {
+                Files.createDirectories(dir);
+            }
+            ReaderBenchmark.generate(dir.resolve("f" + i), fileSize);
+        }
+        final Path input = root.resolve("input.txt");
+        Files.writeString(input, tree.toString());
+        args = new String[]{
+                input.toString(),
+                root.resolve("output.txt").toString(),
+                "--threads=" + threads,
+                "--walk-threads=" + threads,
+                "--format=" + output.substring(0, output.indexOf(':')),
+                "--compress=" + output.substring(output.indexOf(':') + 1)
+        };
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.delete(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    @Benchmark
+    public void recursiveWalk() throws WalkException {
+        Process.start(args, true);
+    }
+}
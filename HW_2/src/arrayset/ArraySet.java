@@ -0,0 +1,760 @@
+package arrayset;
+
+import exceptions.ASComparatorMismatchException;
+import exceptions.ASNoSuchElementException;
+import exceptions.ASSubsetIndexException;
+import exceptions.ASUnsortedException;
+import exceptions.ASUnsupportedOperationException;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+public class ArraySet<T> extends AbstractSet<T> implements NavigableSet<T> {
+    // smaller arrays are sorted in the calling thread
+    private static final int parallelSortThreshold = 1 << 16;
+    // probes of a batch lookup handled by one task
+    private static final int batchChunk = 1 << 13;
+    // elements of both sets combined by one task
+    private static final int combineChunk = 1 << 15;
+    // the smaller set is searched in the larger one by galloping if the larger is this many times bigger
+    private static final int gallopRatio = 16;
+
+    private final List<T> array;
+    private final Comparator<? super T> comparator;
+    // searches the whole set if not null, array is then a view of it
+    private final EytzingerLayout<T> layout;
+
+    // sorted input is only checked and deduplicated, in linear time
+    public ArraySet(final Collection<? extends T> array, final Comparator<? super T> comparator) {
+        this(isSortedBy(array, comparator) ? toArray(array) : distinct(toArray(array), comparator, true), comparator);
+    }
+
+    private ArraySet(final T[] sorted, final Comparator<? super T> comparator) {
+        this.array = Arrays.asList(sorted);
+        this.comparator = comparator;
+        this.layout = null;
+    }
+
+    private ArraySet(final EytzingerLayout<T> layout, final Comparator<? super T> comparator) {
+        this.array = layout;
+        this.comparator = comparator;
+        this.layout = layout;
+    }
+
+    private ArraySet(final Wrapper<T> wrapper, final Comparator<? super T> comparator, final EytzingerLayout<T> layout) {
+        this.array = wrapper;
+        this.comparator = comparator;
+        this.layout = layout;
+    }
+
+    public ArraySet(final Comparator<? super T> comparator) {
+        this(List.of(), comparator);
+    }
+
+    public ArraySet(final Collection<? extends T> array) {
+        this(array, null);
+    }
+
+    public ArraySet() {
+        this(List.of(), null);
+    }
+
+    // elements should be in the comparator order, equal neighbours are dropped; throws ASUnsortedException otherwise
+    public static <T> ArraySet<T> ofSorted(final Collection<? extends T> sorted, final Comparator<? super T> comparator) {
+        return new ArraySet<>(distinct(toArray(sorted), comparator, false), comparator);
+    }
+
+    public static <T extends Comparable<? super T>> ArraySet<T> ofSorted(final Collection<? extends T> sorted) {
+        return ofSorted(sorted, null);
+    }
+
+    // Same set with elements stored in Eytzinger order: searches of large sets miss the cache less often,
+    // iteration is still in sorted order. Views of it search with the same layout.
+    public static <T> ArraySet<T> eytzinger(final Collection<? extends T> array, final Comparator<? super T> comparator) {
+        final T[] sorted = isSortedBy(array, comparator) ? toArray(array) : distinct(toArray(array), comparator, true);
+        return new ArraySet<>(new EytzingerLayout<>(sorted, comparator), comparator);
+    }
+
+    public static <T extends Comparable<? super T>> ArraySet<T> eytzinger(final Collection<? extends T> array) {
+        return eytzinger(array, null);
+    }
+
+    // a copy which nothing else refers to
+    @SuppressWarnings("unchecked")
+    private static <T> T[] toArray(final Collection<? extends T> collection) {
+        return (T[]) collection.toArray(new Object[0]);
+    }
+
+    // sorted sets with the same comparator have neither disorder nor duplicates to look for
+    private static boolean isSortedBy(final Collection<?> collection, final Comparator<?> comparator) {
+        return collection instanceof SortedSet<?> && Objects.equals(((SortedSet<?>) collection).comparator(), comparator);
+    }
+
+    // Sorts the array unless it is in order already, then removes duplicates in place.
+    // Sorting is stable, so the first of equal elements is kept, as TreeSet.addAll does.
+    private static <T> T[] distinct(final T[] array, final Comparator<? super T> comparator, final boolean sortUnsorted) {
+        boolean strict = true;
+        for (int i = 1; i < array.length; i++) {
+            final int order = compare(comparator, array[i - 1], array[i]);
+            if (order > 0) {
+                if (!sortUnsorted) {
+                    throw new ASUnsortedException();
+                }
+                sort(array, comparator);
+                strict = false;
+                break;
+            }
+            strict &= order != 0;
+        }
+        if (strict) {
+            return array;
+        }
+        int size = 0;
+        for (int i = 0; i < array.length; i++) {
+            if (size == 0 || compare(comparator, array[size - 1], array[i]) != 0) {
+                array[size++] = array[i];
+            }
+        }
+        return size == array.length ? array : Arrays.copyOf(array, size);
+    }
+
+    private static <T> void sort(final T[] array, final Comparator<? super T> comparator) {
+        if (array.length >= parallelSortThreshold) {
+            Arrays.parallelSort(array, comparator);
+        } else {
+            Arrays.sort(array, comparator);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> int compare(final Comparator<? super T> comparator, final T a, final T b) {
+        return comparator == null ? ((Comparable<? super T>) a).compareTo(b) : comparator.compare(a, b);
+    }
+
+    private ArraySet<T> emptySet() {
+        return new ArraySet<>(comparator);
+    }
+
+    // result of Collections.binarySearch over array
+    private int binarySearch(final T t) {
+        return layout == null ? Collections.binarySearch(array, t, comparator) : fromLayout(array, layout.search(t));
+    }
+
+    // search result in the layout, translated through the wrappers of views
+    private static int fromLayout(final List<?> list, final int found) {
+        if (list instanceof Wrapper<?>) {
+            final Wrapper<?> wrapper = (Wrapper<?>) list;
+            return wrapper.fromInner(fromLayout(wrapper.array, found));
+        }
+        return found;
+    }
+
+    private int searchIndex(final T t, int shift, boolean inclusive) {
+        return searchIndex(binarySearch(t), shift, inclusive);
+    }
+
+    // position of the closest element in shift direction, -1 if there is none; found is a binarySearch result
+    private int searchIndex(final int found, int shift, boolean inclusive) {
+        int position = found;
+        if (position >= 0) {
+            position += inclusive ? 0 : shift;
+        } else {
+            position = (-position - 1) + ((shift > 0) ? shift - 1 : shift);
+        }
+        return (0 <= position && position < size()) ? position : -1;
+    }
+
+    private T search(final T t, int shift, boolean inclusive) {
+        int index = searchIndex(t, shift, inclusive);
+        return index == -1 ? null : array.get(index);
+    }
+
+    @Override
+    public T lower(final T t) {
+        return search(t, -1, false);
+    }
+
+    @Override
+    public T floor(final T t) {
+        return search(t, -1, true);
+    }
+
+    @Override
+    public T ceiling(final T t) {
+        return search(t, 1, true);
+    }
+
+    @Override
+    public T higher(final T t) {
+        return search(t, 1, false);
+    }
+
+    // Batch lookups: the result for probes.get(i) is at i, as if the single lookup was called for each probe.
+    // Probes in set order are answered in one merge-like pass over the set, each search galloping from where
+    // the previous one ended; other probes are sorted first. If parallel, big batches are split into chunks
+    // searched by the common pool. Arrays can be passed through Arrays.asList.
+
+    public List<T> lowerAll(final List<? extends T> probes, final boolean parallel) {
+        return searchAll(probes, -1, false, parallel);
+    }
+
+    public List<T> floorAll(final List<? extends T> probes, final boolean parallel) {
+        return searchAll(probes, -1, true, parallel);
+    }
+
+    public List<T> ceilingAll(final List<? extends T> probes, final boolean parallel) {
+        return searchAll(probes, 1, true, parallel);
+    }
+
+    public List<T> higherAll(final List<? extends T> probes, final boolean parallel) {
+        return searchAll(probes, 1, false, parallel);
+    }
+
+    public boolean[] containsEach(final List<? extends T> probes, final boolean parallel) {
+        final int[] found = searchAll(probes, parallel);
+        final boolean[] contains = new boolean[found.length];
+        for (int i = 0; i < found.length; i++) {
+            contains[i] = found[i] >= 0;
+        }
+        return contains;
+    }
+
+    public List<T> lowerAll(final List<? extends T> probes) {
+        return lowerAll(probes, false);
+    }
+
+    public List<T> floorAll(final List<? extends T> probes) {
+        return floorAll(probes, false);
+    }
+
+    public List<T> ceilingAll(final List<? extends T> probes) {
+        return ceilingAll(probes, false);
+    }
+
+    public List<T> higherAll(final List<? extends T> probes) {
+        return higherAll(probes, false);
+    }
+
+    public boolean[] containsEach(final List<? extends T> probes) {
+        return containsEach(probes, false);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<T> searchAll(final List<? extends T> probes, final int shift, final boolean inclusive, final boolean parallel) {
+        final int[] found = searchAll(probes, parallel);
+        final T[] result = (T[]) new Object[found.length];
+        for (int i = 0; i < found.length; i++) {
+            final int index = searchIndex(found[i], shift, inclusive);
+            result[i] = index == -1 ? null : array.get(index);
+        }
+        return Arrays.asList(result);
+    }
+
+    // binarySearch result of every probe
+    private int[] searchAll(final List<? extends T> probes, final boolean parallel) {
+        final T[] sorted = toArray(probes);
+        final int[] found = new int[sorted.length];
+        if (isOrdered(sorted)) {
+            gallopAll(sorted, found, null, parallel);
+            return found;
+        }
+        final int[] order = new int[sorted.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        mergeSort(sorted.clone(), order.clone(), sorted, order, 0, sorted.length, parallel);
+        gallopAll(sorted, found, order, parallel);
+        return found;
+    }
+
+    // Stable sort of target[from, to) which moves positions along with probes, so results can be scattered back.
+    // Source holds the same data on entry; halves are sorted into it and merged back into target.
+    private void mergeSort(
+            final T[] source, final int[] sourcePositions,
+            final T[] target, final int[] targetPositions,
+            final int from, final int to,
+            final boolean parallel
+    ) {
+        if (to - from <= 16) {
+            for (int i = from + 1; i < to; i++) {
+                final T probe = target[i];
+                final int position = targetPositions[i];
+                int j = i;
+                for (; j > from && compareTo(target[j - 1], probe) > 0; j--) {
+                    target[j] = target[j - 1];
+                    targetPositions[j] = targetPositions[j - 1];
+                }
+                target[j] = probe;
+                targetPositions[j] = position;
+            }
+            return;
+        }
+        final int middle = (from + to) >>> 1;
+        final Runnable left = () -> mergeSort(target, targetPositions, source, sourcePositions, from, middle, parallel);
+        final Runnable right = () -> mergeSort(target, targetPositions, source, sourcePositions, middle, to, parallel);
+        if (parallel && to - from >= 2 * batchChunk) {
+            ForkJoinTask.invokeAll(ForkJoinTask.adapt(left), ForkJoinTask.adapt(right));
+        } else {
+            left.run();
+            right.run();
+        }
+        for (int i = from, l = from, r = middle; i < to; i++) {
+            final int next = r == to || l < middle && compareTo(source[l], source[r]) <= 0 ? l++ : r++;
+            target[i] = source[next];
+            targetPositions[i] = sourcePositions[next];
+        }
+    }
+
+    private boolean isOrdered(final T[] probes) {
+        for (int i = 1; i < probes.length; i++) {
+            if (compareTo(probes[i - 1], probes[i]) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // searches sorted probes, the result for sorted[i] goes to found[order[i]], or to found[i] without order
+    private void gallopAll(final T[] sorted, final int[] found, final int[] order, final boolean parallel) {
+        final int chunks = parallel ? (sorted.length + batchChunk - 1) / batchChunk : 1;
+        final int size = size();
+        final IntConsumer chunk = c -> {
+            final int end = chunks == 1 ? sorted.length : Math.min(sorted.length, (c + 1) * batchChunk);
+            int start = 0;
+            for (int i = chunks == 1 ? 0 : c * batchChunk; i < end; i++) {
+                final int result = gallop(sorted[i], start, size);
+                found[order == null ? i : order[i]] = result;
+                start = result >= 0 ? result : -result - 1;
+            }
+        };
+        if (chunks > 1) {
+            IntStream.range(0, chunks).parallel().forEach(chunk);
+        } else {
+            chunk.accept(0);
+        }
+    }
+
+    // binarySearch result for t within [start, size), if the elements before start are less than t;
+    // steps grow from start while they land on smaller elements, then the last step is searched
+    private int gallop(final T t, final int start, final int size) {
+        int low = start;
+        int step = 1;
+        while (start + step - 1 < size && compareTo(array.get(start + step - 1), t) < 0) {
+            low = start + step;
+            step <<= 1;
+        }
+        int high = Math.min(start + step - 1, size);
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (compareTo(array.get(middle), t) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low < size && compareTo(array.get(low), t) == 0 ? low : -low - 1;
+    }
+
+    // Set algebra in one merge pass over both sets, O(n + m). If one set is much smaller, its elements are
+    // searched in the other by galloping instead, so the larger one is only copied, not compared.
+    // Both sets should have the same comparator. If parallel, big inputs are split into independent pieces
+    // at elements of the larger set, combined by the common pool.
+
+    // equal elements are taken from a
+    public static <T> ArraySet<T> union(final ArraySet<T> a, final ArraySet<T> b, final boolean parallel) {
+        return combine(a, b, Operation.UNION, parallel);
+    }
+
+    public static <T> ArraySet<T> intersection(final ArraySet<T> a, final ArraySet<T> b, final boolean parallel) {
+        return combine(a, b, Operation.INTERSECTION, parallel);
+    }
+
+    // elements of a which are not in b
+    public static <T> ArraySet<T> difference(final ArraySet<T> a, final ArraySet<T> b, final boolean parallel) {
+        return combine(a, b, Operation.DIFFERENCE, parallel);
+    }
+
+    public static <T> ArraySet<T> union(final ArraySet<T> a, final ArraySet<T> b) {
+        return union(a, b, false);
+    }
+
+    public static <T> ArraySet<T> intersection(final ArraySet<T> a, final ArraySet<T> b) {
+        return intersection(a, b, false);
+    }
+
+    public static <T> ArraySet<T> difference(final ArraySet<T> a, final ArraySet<T> b) {
+        return difference(a, b, false);
+    }
+
+    private enum Operation {
+        UNION, INTERSECTION, DIFFERENCE
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> ArraySet<T> combine(final ArraySet<T> a, final ArraySet<T> b, final Operation operation, final boolean parallel) {
+        if (!Objects.equals(a.comparator, b.comparator)) {
+            throw new ASComparatorMismatchException();
+        }
+        final int pieces = parallel ? Math.max(1, (a.size() + b.size()) / combineChunk) : 1;
+        if (pieces == 1) {
+            final T[] result = (T[]) new Object[capacity(operation, a.size(), b.size())];
+            return new ArraySet<>(Arrays.copyOf(result, combine(a, 0, a.size(), b, 0, b.size(), operation, result)), a.comparator);
+        }
+        // piece p is the larger set from splits[p] and the smaller one from the first element not less than it
+        final boolean aLarger = a.size() >= b.size();
+        final ArraySet<T> larger = aLarger ? a : b;
+        final ArraySet<T> smaller = aLarger ? b : a;
+        final int[] largerSplits = new int[pieces + 1];
+        final int[] smallerSplits = new int[pieces + 1];
+        for (int p = 1; p < pieces; p++) {
+            largerSplits[p] = (int) ((long) larger.size() * p / pieces);
+            final int found = smaller.gallop(larger.array.get(largerSplits[p]), smallerSplits[p - 1], smaller.size());
+            smallerSplits[p] = found >= 0 ? found : -found - 1;
+        }
+        largerSplits[pieces] = larger.size();
+        smallerSplits[pieces] = smaller.size();
+        final T[][] results = (T[][]) IntStream.range(0, pieces).parallel().mapToObj(p -> {
+            final int[] aSplits = aLarger ? largerSplits : smallerSplits;
+            final int[] bSplits = aLarger ? smallerSplits : largerSplits;
+            final T[] piece = (T[]) new Object[capacity(operation, aSplits[p + 1] - aSplits[p], bSplits[p + 1] - bSplits[p])];
+            return Arrays.copyOf(piece, combine(a, aSplits[p], aSplits[p + 1], b, bSplits[p], bSplits[p + 1], operation, piece));
+        }).toArray(Object[][]::new);
+        int size = 0;
+        for (final T[] piece : results) {
+            size += piece.length;
+        }
+        final T[] result = (T[]) new Object[size];
+        size = 0;
+        for (final T[] piece : results) {
+            System.arraycopy(piece, 0, result, size, piece.length);
+            size += piece.length;
+        }
+        return new ArraySet<>(result, a.comparator);
+    }
+
+    private static int capacity(final Operation operation, final int aSize, final int bSize) {
+        switch (operation) {
+            case UNION:
+                return aSize + bSize;
+            case INTERSECTION:
+                return Math.min(aSize, bSize);
+            default:
+                return aSize;
+        }
+    }
+
+    // combines a[aFrom, aTo) with b[bFrom, bTo) into result, returns the size of the result
+    private static <T> int combine(
+            final ArraySet<T> a, final int aFrom, final int aTo,
+            final ArraySet<T> b, final int bFrom, final int bTo,
+            final Operation operation,
+            final T[] result
+    ) {
+        final int aSize = aTo - aFrom;
+        final int bSize = bTo - bFrom;
+        if (aSize >= (long) gallopRatio * bSize) {
+            return gallopCombine(b, bFrom, bTo, a, aFrom, aTo, false, operation, result);
+        }
+        if (bSize >= (long) gallopRatio * aSize) {
+            return gallopCombine(a, aFrom, aTo, b, bFrom, bTo, true, operation, result);
+        }
+        final boolean keepA = operation != Operation.INTERSECTION;
+        final boolean keepB = operation == Operation.UNION;
+        final boolean keepBoth = operation != Operation.DIFFERENCE;
+        int size = 0;
+        int i = aFrom;
+        int j = bFrom;
+        while (i < aTo && j < bTo) {
+            final T x = a.array.get(i);
+            final T y = b.array.get(j);
+            final int c = a.compareTo(x, y);
+            if (c < 0) {
+                if (keepA) {
+                    result[size++] = x;
+                }
+                i++;
+            } else if (c > 0) {
+                if (keepB) {
+                    result[size++] = y;
+                }
+                j++;
+            } else {
+                if (keepBoth) {
+                    result[size++] = x;
+                }
+                i++;
+                j++;
+            }
+        }
+        if (keepA) {
+            size = copy(a, i, aTo, result, size);
+        }
+        if (keepB) {
+            size = copy(b, j, bTo, result, size);
+        }
+        return size;
+    }
+
+    // elements of smaller are searched in larger, the elements of larger between them are only copied
+    private static <T> int gallopCombine(
+            final ArraySet<T> smaller, final int smallerFrom, final int smallerTo,
+            final ArraySet<T> larger, final int largerFrom, final int largerTo,
+            final boolean smallerIsA,
+            final Operation operation,
+            final T[] result
+    ) {
+        final boolean keepLarger = operation == Operation.UNION || operation == Operation.DIFFERENCE && !smallerIsA;
+        final boolean keepSmaller = operation == Operation.UNION || operation == Operation.DIFFERENCE && smallerIsA;
+        final boolean keepBoth = operation != Operation.DIFFERENCE;
+        int size = 0;
+        int start = largerFrom;
+        for (int i = smallerFrom; i < smallerTo; i++) {
+            final T t = smaller.array.get(i);
+            final int found = larger.gallop(t, start, largerTo);
+            final int position = found >= 0 ? found : -found - 1;
+            if (keepLarger) {
+                size = copy(larger, start, position, result, size);
+            }
+            if (found >= 0) {
+                if (keepBoth) {
+                    result[size++] = smallerIsA ? t : larger.array.get(position);
+                }
+                start = position + 1;
+            } else {
+                if (keepSmaller) {
+                    result[size++] = t;
+                }
+                start = position;
+            }
+        }
+        if (keepLarger) {
+            size = copy(larger, start, largerTo, result, size);
+        }
+        return size;
+    }
+
+    private static <T> int copy(final ArraySet<T> set, final int from, final int to, final T[] result, int size) {
+        for (int i = from; i < to; i++) {
+            result[size++] = set.array.get(i);
+        }
+        return size;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean contains(final Object o) {
+        try {
+            return o != null && binarySearch((T) o) >= 0;
+        } catch (ClassCastException ignored) {
+            return false;
+        }
+    }
+
+    @Override
+    public T pollFirst() {
+        throw new ASUnsupportedOperationException("pollFirst");
+    }
+
+    @Override
+    public T pollLast() {
+        throw new ASUnsupportedOperationException("pollLast");
+    }
+
+    @Override
+    public int size() {
+        return array.size();
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return Collections.unmodifiableList(array).iterator();
+    }
+
+    @Override
+    public boolean add(final T t) {
+        throw new ASUnsupportedOperationException("add");
+    }
+
+    @Override
+    public boolean remove(final Object o) {
+        throw new ASUnsupportedOperationException("remove");
+    }
+
+    @Override
+    public boolean addAll(final Collection<? extends T> c) {
+        throw new ASUnsupportedOperationException("addAll");
+    }
+
+    @Override
+    public boolean retainAll(final Collection<?> c) {
+        throw new ASUnsupportedOperationException("retainAll");
+    }
+
+    @Override
+    public boolean removeAll(final Collection<?> c) {
+        throw new ASUnsupportedOperationException("removeAll");
+    }
+
+    @Override
+    public void clear() {
+        throw new ASUnsupportedOperationException("clear");
+    }
+
+    @Override
+    public NavigableSet<T> descendingSet() {
+        return new ArraySet<>(new ReverseWrapper<>(array), Collections.reverseOrder(comparator), layout);
+    }
+
+    @Override
+    public Iterator<T> descendingIterator() {
+        return descendingSet().iterator();
+    }
+
+    private NavigableSet<T> getSlice(final T fromElement, boolean fromInclusive, final T toElement, boolean toInclusive) {
+        int fromIndex = searchIndex(fromElement, 1, fromInclusive);
+        int toIndex = searchIndex(toElement, -1, toInclusive);
+        return (fromIndex != -1 && toIndex != -1 && fromIndex <= toIndex)
+                ? new ArraySet<>(new ViewWrapper<>(array, fromIndex, toIndex - fromIndex + 1), comparator, layout)
+                : new ArraySet<>(comparator);
+    }
+
+    @Override
+    public NavigableSet<T> subSet(final T fromElement, boolean fromInclusive, final T toElement, boolean toInclusive) {
+        if (compareTo(fromElement, toElement) > 0) {
+            throw new ASSubsetIndexException();
+        }
+        return getSlice(fromElement, fromInclusive, toElement, toInclusive);
+    }
+
+    @SuppressWarnings("unchecked")
+    private int compareTo(final T a, final T b) {
+        return comparator == null
+                ? ((Comparable<T>) a).compareTo(b)
+                : comparator.compare(a, b);
+    }
+
+    @Override
+    public NavigableSet<T> headSet(final T toElement, boolean inclusive) {
+        if (isEmpty()) {
+            return emptySet();
+        }
+        return getSlice(first(), true, toElement, inclusive);
+    }
+
+    @Override
+    public NavigableSet<T> tailSet(final T fromElement, boolean inclusive) {
+        if (isEmpty()) {
+            return emptySet();
+        }
+        return getSlice(fromElement, inclusive, last(), true);
+    }
+
+    @Override
+    public Comparator<? super T> comparator() {
+        return comparator;
+    }
+
+    @Override
+    public SortedSet<T> subSet(final T fromElement, T toElement) {
+        return subSet(fromElement, true, toElement, false);
+    }
+
+    @Override
+    public SortedSet<T> headSet(final T toElement) {
+        return headSet(toElement, false);
+    }
+
+    @Override
+    public SortedSet<T> tailSet(final T fromElement) {
+        return tailSet(fromElement, true);
+    }
+
+    @Override
+    public T first() {
+        checkIsEmpty();
+        return array.get(0);
+    }
+
+    @Override
+    public T last() {
+        checkIsEmpty();
+        return array.get(size() - 1);
+    }
+
+    private void checkIsEmpty() {
+        if (isEmpty()) {
+            throw new ASNoSuchElementException();
+        }
+    }
+
+    private static class ReverseWrapper<T> extends Wrapper<T> {
+
+        private ReverseWrapper(final List<T> array) {
+            super(array);
+        }
+
+        @Override
+        public T get(int index) {
+            return array.get(size() - index - 1);
+        }
+
+        @Override
+        protected int fromInner(final int found) {
+            return found >= 0 ? size() - found - 1 : -(size() + found + 1) - 1;
+        }
+    }
+
+    private static class ViewWrapper<T> extends Wrapper<T> {
+        private final int start;
+        private final int size;
+
+        public ViewWrapper(List<T> c, int start, int size) {
+            super(c);
+            this.start = start;
+            this.size = size;
+        }
+
+        @Override
+        public T get(int index) {
+            return super.get(index + start);
+        }
+
+        // elements out of the view are not found, their insertion point is its start or end
+        @Override
+        protected int fromInner(final int found) {
+            if (found >= start && found < start + size) {
+                return found - start;
+            }
+            final int point = found >= 0 ? (found < start ? 0 : size) : -found - 1 - start;
+            return -Math.max(0, Math.min(point, size)) - 1;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    private abstract static class Wrapper<T> extends AbstractList<T> {
+        protected final List<T> array;
+
+        protected Wrapper(final List<T> array) {
+            this.array = array;
+        }
+
+        @Override
+        public T get(int index) {
+            return array.get(index);
+        }
+
+        @Override
+        public int size() {
+            return array.size();
+        }
+
+        // search result in this list for a search result in array
+        protected abstract int fromInner(int found);
+    }
+}
@@ -0,0 +1,107 @@
+package arrayset;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.PrimitiveIterator;
+
+// ArraySet of Double in natural order over a double[]: 8 bytes per element and no unboxing while searching.
+// Order and equality are the ones of Double.compare, so -0.0 comes before 0.0 and NaN is the greatest element.
+// Primitive lookups never allocate, absent is returned when there is no such element.
+public class DoubleArraySet extends PrimitiveArraySet<Double> {
+    private final double[] array;
+
+    public DoubleArraySet(final double... values) {
+        this(distinct(values.clone()), false);
+    }
+
+    public DoubleArraySet(final Collection<Double> values) {
+        this(distinct(unbox(values)), false);
+    }
+
+    private DoubleArraySet(final double[] array, final boolean descending) {
+        this(array, 0, array.length, descending);
+    }
+
+    private DoubleArraySet(final double[] array, final int from, final int to, final boolean descending) {
+        super(from, to, descending);
+        this.array = array;
+    }
+
+    private static double[] unbox(final Collection<Double> values) {
+        final double[] array = new double[values.size()];
+        int size = 0;
+        for (final Double value : values) {
+            array[size++] = value;
+        }
+        return array;
+    }
+
+    // sorts values in place and drops duplicates
+    private static double[] distinct(final double[] values) {
+        Arrays.sort(values);
+        final int size = dropDuplicates(values, values.length, (i, j) -> Double.compare(values[i], values[j]) == 0);
+        return size == values.length ? values : Arrays.copyOf(values, size);
+    }
+
+    @Override
+    protected Double get(final int position) {
+        return array[position];
+    }
+
+    @Override
+    protected int search(final Double key) {
+        return Arrays.binarySearch(array, from, to, key);
+    }
+
+    @Override
+    protected DoubleArraySet view(final int from, final int to, final boolean descending) {
+        return new DoubleArraySet(array, from, to, descending);
+    }
+
+    public boolean contains(final double key) {
+        return Arrays.binarySearch(array, from, to, key) >= 0;
+    }
+
+    @Override
+    public boolean contains(final Object o) {
+        return o instanceof Double && contains((double) (Double) o);
+    }
+
+    private double search(final double key, final int shift, final boolean inclusive, final double absent) {
+        final int index = searchIndex(Arrays.binarySearch(array, from, to, key), shift, inclusive);
+        return index == -1 ? absent : array[index];
+    }
+
+    public double lower(final double key, final double absent) {
+        return search(key, -1, false, absent);
+    }
+
+    public double floor(final double key, final double absent) {
+        return search(key, -1, true, absent);
+    }
+
+    public double ceiling(final double key, final double absent) {
+        return search(key, 1, true, absent);
+    }
+
+    public double higher(final double key, final double absent) {
+        return search(key, 1, false, absent);
+    }
+
+    @Override
+    public PrimitiveIterator.OfDouble iterator() {
+        return new PrimitiveIterator.OfDouble() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return index < size();
+            }
+
+            @Override
+            public double nextDouble() {
+                return array[nextPosition(index++)];
+            }
+        };
+    }
+}
@@ -0,0 +1,80 @@
+package arrayset;
+
+import java.util.AbstractList;
+import java.util.Comparator;
+import java.util.RandomAccess;
+
+// Sorted elements stored in Eytzinger (BFS) order: the children of tree[k] are tree[2k] and tree[2k + 1].
+// A search reads the tree top down, so the first levels stay in cache and the next nodes to read are
+// adjacent, unlike binary search over the sorted array. The list itself is in sorted order through order.
+class EytzingerLayout<T> extends AbstractList<T> implements RandomAccess {
+    private final Comparator<? super T> comparator;
+    // 1-based, tree[0] is unused
+    private final T[] tree;
+    // sorted position of tree[k]
+    private final int[] rank;
+    // tree index of the element at a sorted position
+    private final int[] order;
+
+    @SuppressWarnings("unchecked")
+    EytzingerLayout(final T[] sorted, final Comparator<? super T> comparator) {
+        this.comparator = comparator;
+        this.tree = (T[]) new Object[sorted.length + 1];
+        this.rank = new int[sorted.length + 1];
+        this.order = new int[sorted.length];
+        fill(sorted, 1, 0);
+    }
+
+    // in-order walk of the subtree of k, returns the sorted position after it
+    private int fill(final T[] sorted, final int k, int position) {
+        if (k < tree.length) {
+            position = fill(sorted, 2 * k, position);
+            tree[k] = sorted[position];
+            rank[k] = position;
+            order[position] = k;
+            position = fill(sorted, 2 * k + 1, position + 1);
+        }
+        return position;
+    }
+
+    // same result as Collections.binarySearch over the sorted elements
+    int search(final T t) {
+        int k = descend(t);
+        // drops the right turns taken after the last left one, leaving the first element not less than t
+        k >>>= Integer.numberOfTrailingZeros(~k) + 1;
+        if (k == 0) {
+            return -size() - 1;
+        }
+        return compare(tree[k], t) == 0 ? rank[k] : -rank[k] - 1;
+    }
+
+    // Goes right when tree[k] < t. Whether a step becomes a jump or a conditional move is up to the JIT;
+    // in LayoutBenchmark this if/else form was about 3x faster than a ternary on 10M elements,
+    // where the next node is out of cache, and about 25% slower on 10K.
+    private int descend(final T t) {
+        int k = 1;
+        while (k < tree.length) {
+            if (compare(tree[k], t) < 0) {
+                k = 2 * k + 1;
+            } else {
+                k = 2 * k;
+            }
+        }
+        return k;
+    }
+
+    @SuppressWarnings("unchecked")
+    private int compare(final T a, final T b) {
+        return comparator == null ? ((Comparable<? super T>) a).compareTo(b) : comparator.compare(a, b);
+    }
+
+    @Override
+    public T get(final int index) {
+        return tree[order[index]];
+    }
+
+    @Override
+    public int size() {
+        return order.length;
+    }
+}
@@ -0,0 +1,106 @@
+package arrayset;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.PrimitiveIterator;
+
+// ArraySet of Integer in natural order over an int[]: 4 bytes per element and no unboxing while searching.
+// Primitive lookups never allocate, absent is returned when there is no such element.
+public class IntArraySet extends PrimitiveArraySet<Integer> {
+    private final int[] array;
+
+    public IntArraySet(final int... values) {
+        this(distinct(values.clone()), false);
+    }
+
+    public IntArraySet(final Collection<Integer> values) {
+        this(distinct(unbox(values)), false);
+    }
+
+    private IntArraySet(final int[] array, final boolean descending) {
+        this(array, 0, array.length, descending);
+    }
+
+    private IntArraySet(final int[] array, final int from, final int to, final boolean descending) {
+        super(from, to, descending);
+        this.array = array;
+    }
+
+    private static int[] unbox(final Collection<Integer> values) {
+        final int[] array = new int[values.size()];
+        int size = 0;
+        for (final Integer value : values) {
+            array[size++] = value;
+        }
+        return array;
+    }
+
+    // sorts values in place and drops duplicates
+    private static int[] distinct(final int[] values) {
+        Arrays.sort(values);
+        final int size = dropDuplicates(values, values.length, (i, j) -> values[i] == values[j]);
+        return size == values.length ? values : Arrays.copyOf(values, size);
+    }
+
+    @Override
+    protected Integer get(final int position) {
+        return array[position];
+    }
+
+    @Override
+    protected int search(final Integer key) {
+        return Arrays.binarySearch(array, from, to, key);
+    }
+
+    @Override
+    protected IntArraySet view(final int from, final int to, final boolean descending) {
+        return new IntArraySet(array, from, to, descending);
+    }
+
+    public boolean contains(final int key) {
+        return Arrays.binarySearch(array, from, to, key) >= 0;
+    }
+
+    @Override
+    public boolean contains(final Object o) {
+        return o instanceof Integer && contains((int) (Integer) o);
+    }
+
+    private int search(final int key, final int shift, final boolean inclusive, final int absent) {
+        final int index = searchIndex(Arrays.binarySearch(array, from, to, key), shift, inclusive);
+        return index == -1 ? absent : array[index];
+    }
+
+    public int lower(final int key, final int absent) {
+        return search(key, -1, false, absent);
+    }
+
+    public int floor(final int key, final int absent) {
+        return search(key, -1, true, absent);
+    }
+
+    public int ceiling(final int key, final int absent) {
+        return search(key, 1, true, absent);
+    }
+
+    public int higher(final int key, final int absent) {
+        return search(key, 1, false, absent);
+    }
+
+    @Override
+    public PrimitiveIterator.OfInt iterator() {
+        return new PrimitiveIterator.OfInt() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return index < size();
+            }
+
+            @Override
+            public int nextInt() {
+                return array[nextPosition(index++)];
+            }
+        };
+    }
+}
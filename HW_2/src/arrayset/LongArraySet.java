@@ -0,0 +1,106 @@
+package arrayset;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.PrimitiveIterator;
+
+// ArraySet of Long in natural order over a long[]: 8 bytes per element and no unboxing while searching.
+// Primitive lookups never allocate, absent is returned when there is no such element.
+public class LongArraySet extends PrimitiveArraySet<Long> {
+    private final long[] array;
+
+    public LongArraySet(final long... values) {
+        this(distinct(values.clone()), false);
+    }
+
+    public LongArraySet(final Collection<Long> values) {
+        this(distinct(unbox(values)), false);
+    }
+
+    private LongArraySet(final long[] array, final boolean descending) {
+        this(array, 0, array.length, descending);
+    }
+
+    private LongArraySet(final long[] array, final int from, final int to, final boolean descending) {
+        super(from, to, descending);
+        this.array = array;
+    }
+
+    private static long[] unbox(final Collection<Long> values) {
+        final long[] array = new long[values.size()];
+        int size = 0;
+        for (final Long value : values) {
+            array[size++] = value;
+        }
+        return array;
+    }
+
+    // sorts values in place and drops duplicates
+    private static long[] distinct(final long[] values) {
+        Arrays.sort(values);
+        final int size = dropDuplicates(values, values.length, (i, j) -> values[i] == values[j]);
+        return size == values.length ? values : Arrays.copyOf(values, size);
+    }
+
+    @Override
+    protected Long get(final int position) {
+        return array[position];
+    }
+
+    @Override
+    protected int search(final Long key) {
+        return Arrays.binarySearch(array, from, to, key);
+    }
+
+    @Override
+    protected LongArraySet view(final int from, final int to, final boolean descending) {
+        return new LongArraySet(array, from, to, descending);
+    }
+
+    public boolean contains(final long key) {
+        return Arrays.binarySearch(array, from, to, key) >= 0;
+    }
+
+    @Override
+    public boolean contains(final Object o) {
+        return o instanceof Long && contains((long) (Long) o);
+    }
+
+    private long search(final long key, final int shift, final boolean inclusive, final long absent) {
+        final int index = searchIndex(Arrays.binarySearch(array, from, to, key), shift, inclusive);
+        return index == -1 ? absent : array[index];
+    }
+
+    public long lower(final long key, final long absent) {
+        return search(key, -1, false, absent);
+    }
+
+    public long floor(final long key, final long absent) {
+        return search(key, -1, true, absent);
+    }
+
+    public long ceiling(final long key, final long absent) {
+        return search(key, 1, true, absent);
+    }
+
+    public long higher(final long key, final long absent) {
+        return search(key, 1, false, absent);
+    }
+
+    @Override
+    public PrimitiveIterator.OfLong iterator() {
+        return new PrimitiveIterator.OfLong() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return index < size();
+            }
+
+            @Override
+            public long nextLong() {
+                return array[nextPosition(index++)];
+            }
+        };
+    }
+}
@@ -0,0 +1,558 @@
+package arrayset;
+
+import exceptions.ASNoSuchElementException;
+import exceptions.ASOutOfRangeException;
+import exceptions.ASSubsetIndexException;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+// Mutable companion of ArraySet. Elements live in a sorted base array; changes go to a small sorted
+// delta of added elements and a sorted list of tombstones (positions of removed base elements).
+// When either grows past about sqrt of the base size, both are merged into a new base in one linear pass,
+// so updates cost O(sqrt n) amortized while lookups stay binary searches over contiguous arrays.
+// Views are live: subSet, headSet, tailSet and descendingSet are bounds over the same storage.
+public class MutableArraySet<T> extends AbstractSet<T> implements NavigableSet<T> {
+    private final Storage<T> storage;
+    // bounds in ascending order, a missing bound is unbounded
+    private final boolean hasLo;
+    private final T lo;
+    private final boolean loInclusive;
+    private final boolean hasHi;
+    private final T hi;
+    private final boolean hiInclusive;
+    private final boolean descending;
+
+    public MutableArraySet(final Collection<? extends T> collection, final Comparator<? super T> comparator) {
+        this(new Storage<>(collection, comparator), false, null, false, false, null, false, false);
+    }
+
+    public MutableArraySet(final Comparator<? super T> comparator) {
+        this(List.of(), comparator);
+    }
+
+    public MutableArraySet(final Collection<? extends T> collection) {
+        this(collection, null);
+    }
+
+    public MutableArraySet() {
+        this(List.of(), null);
+    }
+
+    private MutableArraySet(
+            final Storage<T> storage,
+            final boolean hasLo, final T lo, final boolean loInclusive,
+            final boolean hasHi, final T hi, final boolean hiInclusive,
+            final boolean descending
+    ) {
+        this.storage = storage;
+        this.hasLo = hasLo;
+        this.lo = lo;
+        this.loInclusive = loInclusive;
+        this.hasHi = hasHi;
+        this.hi = hi;
+        this.hiInclusive = hiInclusive;
+        this.descending = descending;
+    }
+
+    private boolean tooLow(final T t) {
+        if (!hasLo) {
+            return false;
+        }
+        final int c = storage.compare(t, lo);
+        return c < 0 || c == 0 && !loInclusive;
+    }
+
+    private boolean tooHigh(final T t) {
+        if (!hasHi) {
+            return false;
+        }
+        final int c = storage.compare(t, hi);
+        return c > 0 || c == 0 && !hiInclusive;
+    }
+
+    private boolean inRange(final T t) {
+        return !tooLow(t) && !tooHigh(t);
+    }
+
+    // navigation in ascending order, null if there is no such element in range
+
+    private T lowest() {
+        final T t = !hasLo ? storage.search(null, true, true) : storage.search(lo, true, loInclusive);
+        return t != null && !tooHigh(t) ? t : null;
+    }
+
+    private T highest() {
+        final T t = !hasHi ? storage.search(null, false, true) : storage.search(hi, false, hiInclusive);
+        return t != null && !tooLow(t) ? t : null;
+    }
+
+    private T up(final T t, final boolean inclusive) {
+        if (tooLow(t)) {
+            return lowest();
+        }
+        final T found = storage.search(t, true, inclusive);
+        return found != null && !tooHigh(found) ? found : null;
+    }
+
+    private T down(final T t, final boolean inclusive) {
+        if (tooHigh(t)) {
+            return highest();
+        }
+        final T found = storage.search(t, false, inclusive);
+        return found != null && !tooLow(found) ? found : null;
+    }
+
+    @Override
+    public T lower(final T t) {
+        return descending ? up(t, false) : down(t, false);
+    }
+
+    @Override
+    public T floor(final T t) {
+        return descending ? up(t, true) : down(t, true);
+    }
+
+    @Override
+    public T ceiling(final T t) {
+        return descending ? down(t, true) : up(t, true);
+    }
+
+    @Override
+    public T higher(final T t) {
+        return descending ? down(t, false) : up(t, false);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean contains(final Object o) {
+        try {
+            return o != null && inRange((T) o) && storage.contains((T) o);
+        } catch (ClassCastException ignored) {
+            return false;
+        }
+    }
+
+    @Override
+    public boolean add(final T t) {
+        if (!inRange(t)) {
+            throw new ASOutOfRangeException();
+        }
+        return storage.add(t);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean remove(final Object o) {
+        try {
+            return o != null && inRange((T) o) && storage.remove((T) o);
+        } catch (ClassCastException ignored) {
+            return false;
+        }
+    }
+
+    @Override
+    public void clear() {
+        if (!hasLo && !hasHi) {
+            storage.clear();
+        } else {
+            super.clear();
+        }
+    }
+
+    @Override
+    public T pollFirst() {
+        final T first = descending ? highest() : lowest();
+        if (first != null) {
+            storage.remove(first);
+        }
+        return first;
+    }
+
+    @Override
+    public T pollLast() {
+        final T last = descending ? lowest() : highest();
+        if (last != null) {
+            storage.remove(last);
+        }
+        return last;
+    }
+
+    @Override
+    public int size() {
+        final int below = hasLo ? storage.rank(lo, !loInclusive) : 0;
+        final int upTo = hasHi ? storage.rank(hi, hiInclusive) : storage.size();
+        return Math.max(upTo - below, 0);
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return descending
+                ? storage.new Cursor(highest(), false, this::tooLow)
+                : storage.new Cursor(lowest(), true, this::tooHigh);
+    }
+
+    @Override
+    public NavigableSet<T> descendingSet() {
+        return new MutableArraySet<>(storage, hasLo, lo, loInclusive, hasHi, hi, hiInclusive, !descending);
+    }
+
+    @Override
+    public Iterator<T> descendingIterator() {
+        return descendingSet().iterator();
+    }
+
+    // bounds are given in ascending order and are narrowed by the current ones
+    private NavigableSet<T> getSlice(
+            final boolean newHasLo, final T newLo, final boolean newLoInclusive,
+            final boolean newHasHi, final T newHi, final boolean newHiInclusive
+    ) {
+        final boolean keepLo = !newHasLo || hasLo && (tooLow(newLo) || storage.compare(newLo, lo) == 0 && !loInclusive);
+        final boolean keepHi = !newHasHi || hasHi && (tooHigh(newHi) || storage.compare(newHi, hi) == 0 && !hiInclusive);
+        return new MutableArraySet<>(
+                storage,
+                keepLo ? hasLo : true, keepLo ? lo : newLo, keepLo ? loInclusive : newLoInclusive,
+                keepHi ? hasHi : true, keepHi ? hi : newHi, keepHi ? hiInclusive : newHiInclusive,
+                descending
+        );
+    }
+
+    @Override
+    public NavigableSet<T> subSet(final T fromElement, final boolean fromInclusive, final T toElement, final boolean toInclusive) {
+        if (compareTo(fromElement, toElement) > 0) {
+            throw new ASSubsetIndexException();
+        }
+        return descending
+                ? getSlice(true, toElement, toInclusive, true, fromElement, fromInclusive)
+                : getSlice(true, fromElement, fromInclusive, true, toElement, toInclusive);
+    }
+
+    @Override
+    public NavigableSet<T> headSet(final T toElement, final boolean inclusive) {
+        return descending
+                ? getSlice(true, toElement, inclusive, false, null, false)
+                : getSlice(false, null, false, true, toElement, inclusive);
+    }
+
+    @Override
+    public NavigableSet<T> tailSet(final T fromElement, final boolean inclusive) {
+        return descending
+                ? getSlice(false, null, false, true, fromElement, inclusive)
+                : getSlice(true, fromElement, inclusive, false, null, false);
+    }
+
+    private int compareTo(final T a, final T b) {
+        return descending ? storage.compare(b, a) : storage.compare(a, b);
+    }
+
+    @Override
+    public Comparator<? super T> comparator() {
+        return descending ? Collections.reverseOrder(storage.comparator) : storage.comparator;
+    }
+
+    @Override
+    public SortedSet<T> subSet(final T fromElement, final T toElement) {
+        return subSet(fromElement, true, toElement, false);
+    }
+
+    @Override
+    public SortedSet<T> headSet(final T toElement) {
+        return headSet(toElement, false);
+    }
+
+    @Override
+    public SortedSet<T> tailSet(final T fromElement) {
+        return tailSet(fromElement, true);
+    }
+
+    @Override
+    public T first() {
+        return checkFound(descending ? highest() : lowest());
+    }
+
+    @Override
+    public T last() {
+        return checkFound(descending ? lowest() : highest());
+    }
+
+    private static <T> T checkFound(final T t) {
+        if (t == null) {
+            throw new ASNoSuchElementException();
+        }
+        return t;
+    }
+
+    private static final class Storage<T> {
+        private static final int minMergeThreshold = 64;
+
+        private final Comparator<? super T> comparator;
+        private T[] base;
+        // sorted positions of removed base elements
+        private int[] dead = new int[minMergeThreshold];
+        private int deadCount;
+        // sorted added elements, none of them is equal to a base element, removed or not
+        private T[] delta;
+        private int deltaCount;
+        private int modCount;
+
+        @SuppressWarnings("unchecked")
+        private Storage(final Collection<? extends T> collection, final Comparator<? super T> comparator) {
+            this.comparator = comparator;
+            // an Object[] copy, so any element can be merged in later
+            this.base = distinct((T[]) collection.toArray(new Object[0]), comparator);
+            this.delta = (T[]) new Object[minMergeThreshold];
+        }
+
+        // sorts stably, so the first of equal elements is kept, like TreeSet.addAll does
+        private static <T> T[] distinct(final T[] array, final Comparator<? super T> comparator) {
+            Arrays.sort(array, comparator);
+            int size = 0;
+            for (int i = 0; i < array.length; i++) {
+                if (size == 0 || compare(comparator, array[size - 1], array[i]) != 0) {
+                    array[size++] = array[i];
+                }
+            }
+            return size == array.length ? array : Arrays.copyOf(array, size);
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> int compare(final Comparator<? super T> comparator, final T a, final T b) {
+            return comparator == null ? ((Comparable<? super T>) a).compareTo(b) : comparator.compare(a, b);
+        }
+
+        private int compare(final T a, final T b) {
+            return compare(comparator, a, b);
+        }
+
+        private int size() {
+            return base.length - deadCount + deltaCount;
+        }
+
+        private int mergeThreshold() {
+            return Math.max(minMergeThreshold, (int) Math.sqrt(base.length));
+        }
+
+        private boolean isDead(final int position) {
+            return Arrays.binarySearch(dead, 0, deadCount, position) >= 0;
+        }
+
+        // closest live base position from position in direction, out of range if there is none
+        private int live(int position, final boolean up) {
+            int index = Arrays.binarySearch(dead, 0, deadCount, position);
+            if (index < 0) {
+                return position;
+            }
+            while (0 <= index && index < deadCount && dead[index] == position) {
+                position += up ? 1 : -1;
+                index += up ? 1 : -1;
+            }
+            return position;
+        }
+
+        // index of the closest element in direction for an Arrays.binarySearch result
+        private static int index(final int found, final boolean up, final boolean inclusive) {
+            if (found >= 0) {
+                return inclusive ? found : found + (up ? 1 : -1);
+            }
+            return up ? -found - 1 : -found - 2;
+        }
+
+        private int basePosition(final T t, final boolean up, final boolean inclusive) {
+            final int position = t == null
+                    ? (up ? 0 : base.length - 1)
+                    : index(Arrays.binarySearch(base, t, comparator), up, inclusive);
+            return live(position, up);
+        }
+
+        private int deltaPosition(final T t, final boolean up, final boolean inclusive) {
+            return t == null
+                    ? (up ? 0 : deltaCount - 1)
+                    : index(Arrays.binarySearch(delta, 0, deltaCount, t, comparator), up, inclusive);
+        }
+
+        // closest element to t in direction, the first or the last one if t is null
+        private T search(final T t, final boolean up, final boolean inclusive) {
+            final int b = basePosition(t, up, inclusive);
+            final int d = deltaPosition(t, up, inclusive);
+            final T fromBase = 0 <= b && b < base.length ? base[b] : null;
+            final T fromDelta = 0 <= d && d < deltaCount ? delta[d] : null;
+            if (fromBase == null || fromDelta == null) {
+                return fromBase != null ? fromBase : fromDelta;
+            }
+            return (compare(fromBase, fromDelta) < 0) == up ? fromBase : fromDelta;
+        }
+
+        // number of elements less than t, or not greater if inclusive
+        private int rank(final T t, final boolean inclusive) {
+            final int b = index(Arrays.binarySearch(base, t, comparator), false, inclusive) + 1;
+            final int deadIndex = Arrays.binarySearch(dead, 0, deadCount, b);
+            final int deadBelow = deadIndex >= 0 ? deadIndex : -deadIndex - 1;
+            return b - deadBelow + index(Arrays.binarySearch(delta, 0, deltaCount, t, comparator), false, inclusive) + 1;
+        }
+
+        private boolean contains(final T t) {
+            final int b = Arrays.binarySearch(base, t, comparator);
+            return b >= 0 ? !isDead(b) : Arrays.binarySearch(delta, 0, deltaCount, t, comparator) >= 0;
+        }
+
+        private boolean add(final T t) {
+            final int b = Arrays.binarySearch(base, t, comparator);
+            if (b >= 0) {
+                final int index = Arrays.binarySearch(dead, 0, deadCount, b);
+                if (index < 0) {
+                    return false;
+                }
+                System.arraycopy(dead, index + 1, dead, index, --deadCount - index);
+                modCount++;
+                return true;
+            }
+            final int d = Arrays.binarySearch(delta, 0, deltaCount, t, comparator);
+            if (d >= 0) {
+                return false;
+            }
+            if (deltaCount == delta.length) {
+                delta = Arrays.copyOf(delta, 2 * delta.length);
+            }
+            final int index = -d - 1;
+            System.arraycopy(delta, index, delta, index + 1, deltaCount++ - index);
+            delta[index] = t;
+            modCount++;
+            if (deltaCount > mergeThreshold()) {
+                merge();
+            }
+            return true;
+        }
+
+        private boolean remove(final T t) {
+            final int d = Arrays.binarySearch(delta, 0, deltaCount, t, comparator);
+            if (d >= 0) {
+                System.arraycopy(delta, d + 1, delta, d, --deltaCount - d);
+                delta[deltaCount] = null;
+                modCount++;
+                return true;
+            }
+            final int b = Arrays.binarySearch(base, t, comparator);
+            if (b < 0) {
+                return false;
+            }
+            final int index = Arrays.binarySearch(dead, 0, deadCount, b);
+            if (index >= 0) {
+                return false;
+            }
+            if (deadCount == dead.length) {
+                dead = Arrays.copyOf(dead, 2 * dead.length);
+            }
+            final int insert = -index - 1;
+            System.arraycopy(dead, insert, dead, insert + 1, deadCount++ - insert);
+            dead[insert] = b;
+            modCount++;
+            if (deadCount > mergeThreshold()) {
+                merge();
+            }
+            return true;
+        }
+
+        private void clear() {
+            base = Arrays.copyOf(base, 0);
+            deadCount = 0;
+            Arrays.fill(delta, 0, deltaCount, null);
+            deltaCount = 0;
+            modCount++;
+        }
+
+        // moves live base elements and delta into a new base in one pass
+        private void merge() {
+            final T[] merged = Arrays.copyOf(base, size());
+            int b = live(0, true);
+            int d = 0;
+            for (int i = 0; i < merged.length; i++) {
+                if (d == deltaCount || b < base.length && compare(base[b], delta[d]) < 0) {
+                    merged[i] = base[b];
+                    b = live(b + 1, true);
+                } else {
+                    merged[i] = delta[d++];
+                }
+            }
+            base = merged;
+            deadCount = 0;
+            Arrays.fill(delta, 0, deltaCount, null);
+            deltaCount = 0;
+            modCount++;
+        }
+
+        // Iterates in one direction from start until beyond the bound; positions are found again
+        // after remove, since it may move elements
+        private final class Cursor implements Iterator<T> {
+            private final boolean up;
+            private final Predicate<T> beyond;
+            private T next;
+            private T last;
+            private int b;
+            private int d;
+            private int expectedModCount = modCount;
+
+            private Cursor(final T start, final boolean up, final Predicate<T> beyond) {
+                this.up = up;
+                this.beyond = beyond;
+                if (start != null) {
+                    seek(start, true);
+                }
+            }
+
+            private void seek(final T from, final boolean inclusive) {
+                b = basePosition(from, up, inclusive);
+                d = deltaPosition(from, up, inclusive);
+                advance();
+            }
+
+            private void advance() {
+                final T fromBase = 0 <= b && b < base.length ? base[b] : null;
+                final T fromDelta = 0 <= d && d < deltaCount ? delta[d] : null;
+                if (fromBase != null && (fromDelta == null || (compare(fromBase, fromDelta) < 0) == up)) {
+                    next = fromBase;
+                    b = live(b + (up ? 1 : -1), up);
+                } else {
+                    next = fromDelta;
+                    d += up ? 1 : -1;
+                }
+                if (next != null && beyond.test(next)) {
+                    next = null;
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public T next() {
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                last = next;
+                advance();
+                return last;
+            }
+
+            @Override
+            public void remove() {
+                if (last == null) {
+                    throw new IllegalStateException();
+                }
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                Storage.this.remove(last);
+                expectedModCount = modCount;
+                if (next != null) {
+                    seek(last, false);
+                }
+                last = null;
+            }
+        }
+    }
+}
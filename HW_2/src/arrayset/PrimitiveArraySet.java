@@ -0,0 +1,230 @@
+package arrayset;
+
+import exceptions.ASNoSuchElementException;
+import exceptions.ASSubsetIndexException;
+import exceptions.ASUnsupportedOperationException;
+
+import java.util.*;
+
+// Immutable set of boxed numbers in natural order, stored in a sorted primitive array.
+// Subclasses own the array and give typed access to it; navigation, views and the index arithmetic of
+// primitive lookups and iterators are shared here and work with positions in the array, so views never copy it.
+abstract class PrimitiveArraySet<T extends Comparable<? super T>> extends AbstractSet<T> implements NavigableSet<T> {
+    // elements of the view are array[from, to), iterated backwards if descending
+    protected final int from;
+    protected final int to;
+    protected final boolean descending;
+
+    protected PrimitiveArraySet(final int from, final int to, final boolean descending) {
+        this.from = from;
+        this.to = to;
+        this.descending = descending;
+    }
+
+    // boxed element at array position
+    protected abstract T get(int position);
+
+    // result of Arrays.binarySearch over [from, to) for unboxed key
+    protected abstract int search(T key);
+
+    // set over the same array
+    protected abstract PrimitiveArraySet<T> view(int from, int to, boolean descending);
+
+    // elements at positions i and j of an array being deduplicated are equal
+    protected interface Equality {
+        boolean test(int i, int j);
+    }
+
+    // moves distinct elements of sorted values[0, length) to its front and returns their count;
+    // values is a primitive array, runs of distinct elements are moved with System.arraycopy
+    protected static int dropDuplicates(final Object values, final int length, final Equality equal) {
+        int size = 0;
+        int start = 0;
+        for (int i = 1; i <= length; i++) {
+            if (i == length || equal.test(i - 1, i)) {
+                // values[start, i) are distinct, values[i] repeats values[i - 1]
+                if (size != start) {
+                    System.arraycopy(values, start, values, size, i - start);
+                }
+                size += i - start;
+                start = i + 1;
+            }
+        }
+        return size;
+    }
+
+    // position of the closest element in iteration order, -1 if there is none; found is a search result
+    protected int searchIndex(final int found, int shift, final boolean inclusive) {
+        if (descending) {
+            shift = -shift;
+        }
+        int position;
+        if (found >= 0) {
+            position = found + (inclusive ? 0 : shift);
+        } else {
+            position = (-found - 1) + ((shift > 0) ? shift - 1 : shift);
+        }
+        return (from <= position && position < to) ? position : -1;
+    }
+
+    private T search(final T t, final int shift, final boolean inclusive) {
+        final int index = searchIndex(search(t), shift, inclusive);
+        return index == -1 ? null : get(index);
+    }
+
+    @Override
+    public T lower(final T t) {
+        return search(t, -1, false);
+    }
+
+    @Override
+    public T floor(final T t) {
+        return search(t, -1, true);
+    }
+
+    @Override
+    public T ceiling(final T t) {
+        return search(t, 1, true);
+    }
+
+    @Override
+    public T higher(final T t) {
+        return search(t, 1, false);
+    }
+
+    @Override
+    public int size() {
+        return to - from;
+    }
+
+    // array position of the index-th element in iteration order
+    protected int position(final int index) {
+        return descending ? to - 1 - index : from + index;
+    }
+
+    // position for the iterator which returned index elements already
+    protected int nextPosition(final int index) {
+        if (index >= size()) {
+            throw new NoSuchElementException();
+        }
+        return position(index);
+    }
+
+    @Override
+    public NavigableSet<T> descendingSet() {
+        return view(from, to, !descending);
+    }
+
+    @Override
+    public Iterator<T> descendingIterator() {
+        return descendingSet().iterator();
+    }
+
+    // first and last are positions in iteration order, the slice is empty if one of them is -1
+    private NavigableSet<T> getSlice(final int first, final int last) {
+        if (first == -1 || last == -1 || (descending ? first < last : first > last)) {
+            return view(from, from, descending);
+        }
+        return view(Math.min(first, last), Math.max(first, last) + 1, descending);
+    }
+
+    @Override
+    public NavigableSet<T> subSet(final T fromElement, final boolean fromInclusive, final T toElement, final boolean toInclusive) {
+        if (compareTo(fromElement, toElement) > 0) {
+            throw new ASSubsetIndexException();
+        }
+        return getSlice(searchIndex(search(fromElement), 1, fromInclusive), searchIndex(search(toElement), -1, toInclusive));
+    }
+
+    @Override
+    public NavigableSet<T> headSet(final T toElement, final boolean inclusive) {
+        return getSlice(isEmpty() ? -1 : position(0), searchIndex(search(toElement), -1, inclusive));
+    }
+
+    @Override
+    public NavigableSet<T> tailSet(final T fromElement, final boolean inclusive) {
+        return getSlice(searchIndex(search(fromElement), 1, inclusive), isEmpty() ? -1 : position(size() - 1));
+    }
+
+    private int compareTo(final T a, final T b) {
+        return descending ? b.compareTo(a) : a.compareTo(b);
+    }
+
+    @Override
+    public Comparator<? super T> comparator() {
+        return descending ? Collections.reverseOrder() : null;
+    }
+
+    @Override
+    public SortedSet<T> subSet(final T fromElement, final T toElement) {
+        return subSet(fromElement, true, toElement, false);
+    }
+
+    @Override
+    public SortedSet<T> headSet(final T toElement) {
+        return headSet(toElement, false);
+    }
+
+    @Override
+    public SortedSet<T> tailSet(final T fromElement) {
+        return tailSet(fromElement, true);
+    }
+
+    @Override
+    public T first() {
+        checkIsEmpty();
+        return get(position(0));
+    }
+
+    @Override
+    public T last() {
+        checkIsEmpty();
+        return get(position(size() - 1));
+    }
+
+    private void checkIsEmpty() {
+        if (isEmpty()) {
+            throw new ASNoSuchElementException();
+        }
+    }
+
+    @Override
+    public T pollFirst() {
+        throw new ASUnsupportedOperationException("pollFirst");
+    }
+
+    @Override
+    public T pollLast() {
+        throw new ASUnsupportedOperationException("pollLast");
+    }
+
+    @Override
+    public boolean add(final T t) {
+        throw new ASUnsupportedOperationException("add");
+    }
+
+    @Override
+    public boolean remove(final Object o) {
+        throw new ASUnsupportedOperationException("remove");
+    }
+
+    @Override
+    public boolean addAll(final Collection<? extends T> c) {
+        throw new ASUnsupportedOperationException("addAll");
+    }
+
+    @Override
+    public boolean retainAll(final Collection<?> c) {
+        throw new ASUnsupportedOperationException("retainAll");
+    }
+
+    @Override
+    public boolean removeAll(final Collection<?> c) {
+        throw new ASUnsupportedOperationException("removeAll");
+    }
+
+    @Override
+    public void clear() {
+        throw new ASUnsupportedOperationException("clear");
+    }
+}
@@ -0,0 +1,8 @@
+package exceptions;
+
+public class ASComparatorMismatchException extends IllegalArgumentException {
+    @Override
+    public String getMessage() {
+        return "ArraySets should have the same comparator";
+    }
+}
@@ -0,0 +1,8 @@
+package exceptions;
+
+public class ASOutOfRangeException extends IllegalArgumentException {
+    @Override
+    public String getMessage() {
+        return "Element is out of the range of the ArraySet view";
+    }
+}
@@ -0,0 +1,8 @@
+package exceptions;
+
+public class ASUnsortedException extends IllegalArgumentException {
+    @Override
+    public String getMessage() {
+        return "Elements should be sorted by the comparator of ArraySet";
+    }
+}
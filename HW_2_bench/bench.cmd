@@ -0,0 +1,17 @@
+@echo off
+rem Runs ArraySet benchmarks, results are written to results.json
+rem Expects jmh-core, jmh-generator-annprocess and their dependencies (jopt-simple, commons-math3) in %JMH_LIB%
+rem JMH does not accept benchmarks in the default package, so they live in the arrayset package of HW_2
+rem Extra arguments are passed to JMH, e.g. "bench.cmd PrimitiveSetBenchmark -p size=1000"
+
+if "%JMH_LIB%"=="" set JMH_LIB=../../lib/jmh
+
+javac ^
+  -cp "%JMH_LIB%/*" ^
+  -d out ^
+  ../HW_2/src/arrayset/*.java ../HW_2/src/exceptions/*.java src/arrayset/*.java
+
+java -cp out -Xmx4G arrayset.Footprint
+java -cp "out;%JMH_LIB%/*" org.openjdk.jmh.Main -rf json -rff results.json %*
+
+rmdir /S /Q out > NUL
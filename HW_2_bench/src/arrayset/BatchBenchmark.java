@@ -0,0 +1,63 @@
+package arrayset;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+// one operation looks up probeCount random probes, one at a time or as a batch; probes are sorted or not
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4G")
+public class BatchBenchmark {
+    private static final int probeCount = 1_000_000;
+
+    @Param({"1000000", "10000000"})
+    private int size;
+
+    @Param({"true", "false"})
+    private boolean sorted;
+
+    private ArraySet<Integer> set;
+    private List<Integer> probes;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final Random random = new Random(239);
+        final Integer[] values = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = 2 * i;
+        }
+        set = ArraySet.ofSorted(Arrays.asList(values));
+        final Integer[] array = new Integer[probeCount];
+        for (int i = 0; i < probeCount; i++) {
+            array[i] = random.nextInt(2 * size);
+        }
+        if (sorted) {
+            Arrays.sort(array);
+        }
+        probes = Arrays.asList(array);
+    }
+
+    @Benchmark
+    public Integer[] single() {
+        final Integer[] result = new Integer[probeCount];
+        for (int i = 0; i < probeCount; i++) {
+            result[i] = set.ceiling(probes.get(i));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<Integer> batch() {
+        return set.ceilingAll(probes);
+    }
+
+    @Benchmark
+    public List<Integer> parallelBatch() {
+        return set.ceilingAll(probes, true);
+    }
+}
@@ -0,0 +1,52 @@
+package arrayset;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+// one operation builds a set of size boxed integers; input is sorted, sorted with every element twice, or shuffled
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgs = "-Xmx8G")
+public class ConstructionBenchmark {
+    @Param({"10000000"})
+    private int size;
+
+    @Param({"sorted", "duplicates", "shuffled"})
+    private String input;
+
+    private List<Integer> values;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final Integer[] array = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            array[i] = input.equals("duplicates") ? i / 2 : i;
+        }
+        if (input.equals("shuffled")) {
+            Collections.shuffle(Arrays.asList(array), new Random(239));
+        }
+        values = Arrays.asList(array);
+    }
+
+    // how the constructor used to build the array
+    @Benchmark
+    public List<Integer> treeSet() {
+        return new ArrayList<>(new TreeSet<>(values));
+    }
+
+    @Benchmark
+    public ArraySet<Integer> constructor() {
+        return new ArraySet<>(values);
+    }
+
+    // shuffled input is rejected by ofSorted, so it is not measured
+    @Benchmark
+    public ArraySet<Integer> ofSorted() {
+        return input.equals("shuffled") ? null : ArraySet.ofSorted(values);
+    }
+}
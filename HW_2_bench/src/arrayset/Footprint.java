@@ -0,0 +1,47 @@
+package arrayset;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+// Prints heap retained per element by ArraySet and its primitive variants, measured as used heap
+// before and after building a set of size elements, after full collections.
+// Boxed values passed to ArraySet are counted too, since the set keeps them.
+public class Footprint {
+    private static final int size = 10_000_000;
+
+    // keeps the measured set reachable
+    private static Object retained;
+
+    public static void main(final String[] args) {
+        final int[] ints = new int[size];
+        final long[] longs = new long[size];
+        final double[] doubles = new double[size];
+        for (int i = 0; i < size; i++) {
+            ints[i] = 2 * i;
+            longs[i] = 2L * i;
+            doubles[i] = 2.0 * i;
+        }
+        print("ArraySet<Integer>", () -> new ArraySet<>(Arrays.stream(ints).boxed().toList()));
+        print("IntArraySet", () -> new IntArraySet(ints));
+        print("ArraySet<Long>", () -> new ArraySet<>(Arrays.stream(longs).boxed().toList()));
+        print("LongArraySet", () -> new LongArraySet(longs));
+        print("ArraySet<Double>", () -> new ArraySet<>(Arrays.stream(doubles).boxed().toList()));
+        print("DoubleArraySet", () -> new DoubleArraySet(doubles));
+    }
+
+    private static void print(final String name, final Supplier<Object> factory) {
+        final long before = used();
+        retained = factory.get();
+        final long after = used();
+        retained = null;
+        System.out.printf("%-20s %6.2f bytes per element%n", name, (double) (after - before) / size);
+    }
+
+    private static long used() {
+        final Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,67 @@
+package arrayset;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// one operation is one lookup of a random probe in ArraySet with sorted and with Eytzinger layout;
+// from 1000000 elements the references alone are larger than a usual last-level cache
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4G")
+public class LayoutBenchmark {
+    private static final int probeCount = 1 << 16;
+
+    @Param({"10000", "1000000", "10000000"})
+    private int size;
+
+    private ArraySet<Integer> sorted;
+    private ArraySet<Integer> eytzinger;
+    private Integer[] probes;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final Random random = new Random(239);
+        final Integer[] values = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = 2 * i;
+        }
+        sorted = ArraySet.ofSorted(Arrays.asList(values));
+        eytzinger = ArraySet.eytzinger(Arrays.asList(values));
+        probes = new Integer[probeCount];
+        for (int i = 0; i < probeCount; i++) {
+            probes[i] = random.nextInt(2 * size);
+        }
+    }
+
+    private int nextIndex() {
+        next = (next + 1) & (probeCount - 1);
+        return next;
+    }
+
+    @Benchmark
+    public Integer sortedCeiling() {
+        return sorted.ceiling(probes[nextIndex()]);
+    }
+
+    @Benchmark
+    public Integer eytzingerCeiling() {
+        return eytzinger.ceiling(probes[nextIndex()]);
+    }
+
+    @Benchmark
+    public boolean sortedContains() {
+        return sorted.contains(probes[nextIndex()]);
+    }
+
+    @Benchmark
+    public boolean eytzingerContains() {
+        return eytzinger.contains(probes[nextIndex()]);
+    }
+}
@@ -0,0 +1,75 @@
+package arrayset;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.NavigableSet;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// one operation is one lookup of a random probe, half of the probes are present in the set
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4G")
+public class PrimitiveSetBenchmark {
+    private static final int probeCount = 1 << 16;
+
+    @Param({"1000", "1000000", "10000000"})
+    private int size;
+
+    private ArraySet<Integer> generic;
+    private IntArraySet primitive;
+    private int[] probes;
+    private Integer[] boxedProbes;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final Random random = new Random(239);
+        final int[] values = new int[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = 2 * i;
+        }
+        generic = new ArraySet<>(Arrays.stream(values).boxed().toList());
+        primitive = new IntArraySet(values);
+        probes = new int[probeCount];
+        boxedProbes = new Integer[probeCount];
+        for (int i = 0; i < probeCount; i++) {
+            probes[i] = random.nextInt(2 * size);
+            boxedProbes[i] = probes[i];
+        }
+    }
+
+    private int nextIndex() {
+        next = (next + 1) & (probeCount - 1);
+        return next;
+    }
+
+    @Benchmark
+    public Integer genericCeiling() {
+        return generic.ceiling(boxedProbes[nextIndex()]);
+    }
+
+    @Benchmark
+    public Integer primitiveCeilingBoxed() {
+        return ((NavigableSet<Integer>) primitive).ceiling(boxedProbes[nextIndex()]);
+    }
+
+    @Benchmark
+    public int primitiveCeiling() {
+        return primitive.ceiling(probes[nextIndex()], -1);
+    }
+
+    @Benchmark
+    public boolean genericContains() {
+        return generic.contains(boxedProbes[nextIndex()]);
+    }
+
+    @Benchmark
+    public boolean primitiveContains() {
+        return primitive.contains(probes[nextIndex()]);
+    }
+}
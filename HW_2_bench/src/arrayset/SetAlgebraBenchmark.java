@@ -0,0 +1,66 @@
+package arrayset;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+// one operation combines a set of size random integers with a set of otherSize ones
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4G")
+public class SetAlgebraBenchmark {
+    @Param({"1000000", "10000000"})
+    private int size;
+
+    @Param({"1000", "1000000"})
+    private int otherSize;
+
+    private ArraySet<Integer> a;
+    private ArraySet<Integer> b;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final Random random = new Random(239);
+        a = new ArraySet<>(random.ints(size, 0, 4 * size).boxed().toList());
+        b = new ArraySet<>(random.ints(otherSize, 0, 4 * size).boxed().toList());
+    }
+
+    // how sets had to be combined before
+    @Benchmark
+    public ArraySet<Integer> treeSetUnion() {
+        final TreeSet<Integer> union = new TreeSet<>(a);
+        union.addAll(b);
+        return new ArraySet<>(union);
+    }
+
+    @Benchmark
+    public ArraySet<Integer> union() {
+        return ArraySet.union(a, b);
+    }
+
+    @Benchmark
+    public ArraySet<Integer> parallelUnion() {
+        return ArraySet.union(a, b, true);
+    }
+
+    @Benchmark
+    public ArraySet<Integer> treeSetIntersection() {
+        final TreeSet<Integer> intersection = new TreeSet<>(a);
+        intersection.retainAll(b);
+        return new ArraySet<>(intersection);
+    }
+
+    @Benchmark
+    public ArraySet<Integer> intersection() {
+        return ArraySet.intersection(a, b);
+    }
+
+    @Benchmark
+    public ArraySet<Integer> difference() {
+        return ArraySet.difference(a, b);
+    }
+}